@@ -1,9 +1,13 @@
+DROP TABLE IF EXISTS transaction_stats CASCADE;
 DROP TABLE IF EXISTS transactions CASCADE;
+DROP SCHEMA IF EXISTS transactions_archive CASCADE;
 DROP TABLE IF EXISTS wallets CASCADE;
 
 -- Wallets table
+-- Ids are time-ordered UUIDv7 (util.UUIDGenerator) stored as native 16-byte uuid:
+-- new keys append to the right edge of the primary key indexes
 CREATE TABLE wallets (
-    id VARCHAR(36) PRIMARY KEY,
+    id UUID PRIMARY KEY,
     address VARCHAR(100) NOT NULL UNIQUE,
     crypto_type VARCHAR(20) NOT NULL CHECK (crypto_type IN ('BITCOIN', 'ETHEREUM')),
     balance DECIMAL(20, 8) NOT NULL DEFAULT 0.0,
@@ -13,10 +17,16 @@ CREATE TABLE wallets (
 
 CREATE INDEX idx_wallets_address ON wallets(address);
 CREATE INDEX idx_wallets_crypto_type ON wallets(crypto_type);
+-- Keyset pagination (newest first)
+CREATE INDEX idx_wallets_created_at_id ON wallets(created_at DESC, id DESC);
 
 -- Transactions table
+-- Partitioned by month of creation (transactions_YYYYMM). Rows never change partition:
+-- a status change is an in-place update, so id stays unique through (id, created_at).
+-- Pending rows are recent (expired after MEMPOOL_TTL_MINUTES), so the partial pending
+-- indexes of old partitions are empty and mempool queries only read the recent ones.
 CREATE TABLE transactions (
-    id VARCHAR(36) PRIMARY KEY,
+    id UUID NOT NULL,
     from_address VARCHAR(100) NOT NULL,
     to_address VARCHAR(100) NOT NULL,
     amount DECIMAL(20, 8) NOT NULL,
@@ -25,33 +35,109 @@ CREATE TABLE transactions (
     fee_level VARCHAR(20) NOT NULL CHECK (fee_level IN ('ECONOMIQUE', 'STANDARD', 'RAPIDE')),
     status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'CONFIRMED', 'REJECTED')),
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_transactions PRIMARY KEY (id, created_at),
     CONSTRAINT chk_amount_positive CHECK (amount > 0),
     CONSTRAINT chk_fees_positive CHECK (fees >= 0),
     CONSTRAINT chk_different_addresses CHECK (from_address != to_address)
-);
+) PARTITION BY RANGE (created_at);
+
+-- Rows outside every monthly partition; kept empty by the partition maintenance job
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+-- Monthly partitions for this month and the next two;
+-- later months are created ahead of time by the maintenance job
+DO $$
+DECLARE
+    month DATE := DATE_TRUNC('month', CURRENT_DATE);
+BEGIN
+    FOR i IN 0..2 LOOP
+        EXECUTE FORMAT(
+            'CREATE TABLE transactions_%s PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+            TO_CHAR(month, 'YYYYMM'), month, month + INTERVAL '1 month');
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END;
+$$;
+
+-- Old partitions are detached into this schema
+CREATE SCHEMA IF NOT EXISTS transactions_archive;
 
 CREATE INDEX idx_transactions_from_address ON transactions(from_address);
 CREATE INDEX idx_transactions_to_address ON transactions(to_address);
-CREATE INDEX idx_transactions_status ON transactions(status);
 CREATE INDEX idx_transactions_crypto_type ON transactions(crypto_type);
-CREATE INDEX idx_transactions_created_at ON transactions(created_at DESC);
+-- Keyset pagination: newest first, per chain, and per status in mempool order
+CREATE INDEX idx_transactions_created_at ON transactions(created_at DESC, id DESC);
+CREATE INDEX idx_transactions_type_created_at ON transactions(crypto_type, created_at DESC, id DESC);
+CREATE INDEX idx_transactions_status_fees ON transactions(status, fees DESC, created_at ASC, id ASC);
+-- Mempool ordering; also answers MIN/MAX(fees) of pending rows from the index ends
+CREATE INDEX idx_transactions_pending_fees ON transactions(fees DESC, created_at ASC) WHERE status = 'PENDING';
+-- Expiry sweeps walk pending rows oldest first
+CREATE INDEX idx_transactions_pending_created_at ON transactions(created_at) WHERE status = 'PENDING';
+
+-- The aggregate table below is maintained incrementally by a trigger. Each logical row is
+-- striped over 16 slot rows, picked by backend pid, so concurrent writers
+-- (batch/COPY inserts, confirmers) update different rows instead of queuing on one lock.
+-- Readers sum the slots; a single slot may go negative, the sum is exact.
+CREATE OR REPLACE FUNCTION aggregate_slot() RETURNS SMALLINT AS $$
+    SELECT (pg_backend_pid() % 16)::SMALLINT;
+$$ LANGUAGE SQL STABLE;
+
+-- Transaction aggregates per chain and status (same layout as model.TransactionStats).
+-- Archiving a partition does not touch it, so it keeps lifetime totals.
+CREATE TABLE transaction_stats (
+    crypto_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    slot SMALLINT NOT NULL,
+    tx_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(28, 8) NOT NULL DEFAULT 0.0,
+    total_fees DECIMAL(28, 8) NOT NULL DEFAULT 0.0,
+    PRIMARY KEY (crypto_type, status, slot)
+);
+
+CREATE OR REPLACE FUNCTION transaction_stats_add(p_type VARCHAR, p_status VARCHAR,
+                                                 p_amount DECIMAL, p_fees DECIMAL, p_count INT) RETURNS VOID AS $$
+    INSERT INTO transaction_stats (crypto_type, status, slot, tx_count, total_amount, total_fees)
+    VALUES (p_type, p_status, aggregate_slot(), p_count, p_count * p_amount, p_count * p_fees)
+    ON CONFLICT (crypto_type, status, slot) DO UPDATE
+       SET tx_count = transaction_stats.tx_count + EXCLUDED.tx_count,
+           total_amount = transaction_stats.total_amount + EXCLUDED.total_amount,
+           total_fees = transaction_stats.total_fees + EXCLUDED.total_fees;
+$$ LANGUAGE SQL;
+
+CREATE OR REPLACE FUNCTION trg_transaction_stats() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM transaction_stats_add(OLD.crypto_type, OLD.status, OLD.amount, OLD.fees, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM transaction_stats_add(NEW.crypto_type, NEW.status, NEW.amount, NEW.fees, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER transactions_stats
+    AFTER INSERT OR UPDATE OF status, amount, fees, crypto_type OR DELETE ON transactions
+    FOR EACH ROW EXECUTE FUNCTION trg_transaction_stats();
 
 -- Seed data
 INSERT INTO wallets (id, address, crypto_type, balance) VALUES 
-('test-btc-001', '1A1zP1eP5QGefi2DMPTfTL5SLmv7DivfNa', 'BITCOIN', 0.5),
-('test-eth-001', '0x742d35Cc6634C0532925a3b8D9f4e676C2fC2f36', 'ETHEREUM', 10.0);
+('01900000-0000-7000-8000-000000000001', '1A1zP1eP5QGefi2DMPTfTL5SLmv7DivfNa', 'BITCOIN', 0.5),
+('01900000-0000-7000-8000-000000000002', '0x742d35Cc6634C0532925a3b8D9f4e676C2fC2f36', 'ETHEREUM', 10.0);
 
 -- Views
+-- Sums the trigger-maintained slots: no scan of transactions
 CREATE OR REPLACE VIEW v_transaction_stats AS
 SELECT 
     crypto_type,
     status,
-    COUNT(*) AS count,
-    SUM(amount) AS total_amount,
-    SUM(fees) AS total_fees,
-    AVG(fees) AS avg_fees
-FROM transactions
-GROUP BY crypto_type, status;
+    SUM(tx_count) AS count,
+    SUM(total_amount) AS total_amount,
+    SUM(total_fees) AS total_fees,
+    SUM(total_fees) / SUM(tx_count) AS avg_fees
+FROM transaction_stats
+GROUP BY crypto_type, status
+HAVING SUM(tx_count) > 0;
 
 CREATE OR REPLACE VIEW v_mempool AS
 SELECT 
@@ -62,6 +148,7 @@ SELECT
     fees,
     crypto_type,
     fee_level,
+    status,
     created_at
 FROM transactions
 WHERE status = 'PENDING'
@@ -70,6 +157,8 @@ ORDER BY fees DESC, created_at ASC;
 -- Comments
 COMMENT ON TABLE wallets IS 'Crypto wallets storage';
 COMMENT ON TABLE transactions IS 'Crypto transactions storage';
+COMMENT ON SCHEMA transactions_archive IS 'Detached monthly transaction partitions older than the retention period';
 COMMENT ON COLUMN wallets.balance IS 'Balance in crypto units (BTC or ETH)';
 COMMENT ON COLUMN transactions.fees IS 'Transaction fees in crypto units';
 COMMENT ON VIEW v_mempool IS 'Mempool view (pending transactions ordered by fees)';
+COMMENT ON TABLE transaction_stats IS 'Transaction count and totals per chain and status, maintained by trigger';
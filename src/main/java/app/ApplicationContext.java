@@ -2,6 +2,9 @@ package app;
 
 import service.*;
 import repository.*;
+import model.Transaction;
+import util.EnvLoader;
+import java.time.Duration;
 
 public class ApplicationContext {
     
@@ -11,22 +14,49 @@ public class ApplicationContext {
     private final WalletService walletService;
     private final TransactionService transactionService;
     private final MempoolService mempoolService;
+    private final MempoolExpirySweeper mempoolExpirySweeper;
+    private final PartitionMaintenanceJob partitionMaintenanceJob;
+    private final HistoryService historyService;
+    private final WriteBehindWriter writeBehindWriter;
     
     // Repositories
     private final WalletRepository walletRepository;
     private final TransactionRepository transactionRepository;
     private final MempoolRepository mempoolRepository;
+    private final MempoolSnapshotStore mempoolSnapshotStore;
+    private final TransactionPartitionRepository transactionPartitionRepository;
     
     private ApplicationContext() {
         // Initialize repositories
         this.walletRepository = new WalletRepository();
         this.transactionRepository = new TransactionRepository();
         this.mempoolRepository = new MempoolRepository();
+        this.mempoolSnapshotStore = new MempoolSnapshotStore(
+            EnvLoader.get("MEMPOOL_SNAPSHOT_PATH", "mempool.snapshot"));
+        this.transactionPartitionRepository = new TransactionPartitionRepository();
+        
+        // Background persistence of service mutations
+        this.writeBehindWriter = new WriteBehindWriter(transactionRepository, walletRepository,
+            Integer.parseInt(EnvLoader.get("WRITE_BEHIND_QUEUE_CAPACITY", "10000")),
+            Integer.parseInt(EnvLoader.get("WRITE_BEHIND_BATCH_SIZE", "500")),
+            Long.parseLong(EnvLoader.get("WRITE_BEHIND_LINGER_MS", "200")));
+        Transaction.addStatusListener((tx, oldStatus, newStatus) -> writeBehindWriter.updateStatus(tx));
         
         // Initialize services
-        this.walletService = new WalletService();
-        this.transactionService = new TransactionService(walletService);
+        this.walletService = new WalletService(writeBehindWriter);
+        this.transactionService = new TransactionService(walletService, writeBehindWriter);
+        Transaction.addStatusListener(transactionService::onStatusChange);
         this.mempoolService = new MempoolService(transactionService);
+        this.mempoolExpirySweeper = new MempoolExpirySweeper(mempoolService, transactionRepository,
+            Duration.ofMinutes(Long.parseLong(EnvLoader.get("MEMPOOL_TTL_MINUTES", "1440"))),
+            Duration.ofSeconds(Long.parseLong(EnvLoader.get("MEMPOOL_SWEEP_INTERVAL_SECONDS", "60"))),
+            Integer.parseInt(EnvLoader.get("MEMPOOL_EXPIRY_BATCH_SIZE", "500")));
+        this.partitionMaintenanceJob = new PartitionMaintenanceJob(transactionPartitionRepository,
+            Integer.parseInt(EnvLoader.get("PARTITION_MONTHS_AHEAD", "2")),
+            Integer.parseInt(EnvLoader.get("PARTITION_RETENTION_MONTHS", "12")),
+            Duration.ofMinutes(Long.parseLong(EnvLoader.get("PARTITION_MAINTENANCE_INTERVAL_MINUTES", "60"))));
+        this.historyService = new HistoryService(transactionRepository, walletRepository,
+            Integer.parseInt(EnvLoader.get("HISTORY_PAGE_SIZE", "20")));
     }
     
 
@@ -41,7 +71,13 @@ public class ApplicationContext {
     public WalletService getWalletService() { return walletService; }
     public TransactionService getTransactionService() { return transactionService; }
     public MempoolService getMempoolService() { return mempoolService; }
+    public MempoolExpirySweeper getMempoolExpirySweeper() { return mempoolExpirySweeper; }
+    public PartitionMaintenanceJob getPartitionMaintenanceJob() { return partitionMaintenanceJob; }
+    public HistoryService getHistoryService() { return historyService; }
+    public WriteBehindWriter getWriteBehindWriter() { return writeBehindWriter; }
     public WalletRepository getWalletRepository() { return walletRepository; }
     public TransactionRepository getTransactionRepository() { return transactionRepository; }
     public MempoolRepository getMempoolRepository() { return mempoolRepository; }
+    public MempoolSnapshotStore getMempoolSnapshotStore() { return mempoolSnapshotStore; }
+    public TransactionPartitionRepository getTransactionPartitionRepository() { return transactionPartitionRepository; }
 }
\ No newline at end of file
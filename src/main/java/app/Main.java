@@ -2,7 +2,9 @@ package app;
 
 import util.ConsolePrinter;
 import util.DatabaseConnection;
+import util.EnvLoader;
 import util.LoggerUtil;
+import java.time.Duration;
 import java.util.Scanner;
 
 /**
@@ -35,10 +37,42 @@ public class Main {
         } finally {
             // Cleanup
             scanner.close();
+            ApplicationContext.getInstance().getMempoolExpirySweeper().stop();
+            ApplicationContext.getInstance().getPartitionMaintenanceJob().stop();
+            saveMempoolSnapshot();
+            ApplicationContext.getInstance().getMempoolService().shutdown();
+            flushPendingWrites();
             DatabaseConnection.getInstance().closeConnection();
         }
     }
     
+    /**
+     * Writes the pending mempool to disk for a fast restart
+     */
+    private static void saveMempoolSnapshot() {
+        try {
+            ApplicationContext context = ApplicationContext.getInstance();
+            context.getMempoolService().saveSnapshot(context.getMempoolSnapshotStore());
+        } catch (Exception e) {
+            LoggerUtil.logError("Unable to write mempool snapshot", e);
+        }
+    }
+    
+    /**
+     * Writes queued mutations to the database before the pool is closed
+     */
+    private static void flushPendingWrites() {
+        try {
+            long timeout = Long.parseLong(EnvLoader.get("WRITE_BEHIND_SHUTDOWN_TIMEOUT_MS", "30000"));
+            if (!ApplicationContext.getInstance().getWriteBehindWriter().close(timeout)) {
+                LoggerUtil.logWarning("Some queued writes were not persisted before shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LoggerUtil.logError("Interrupted while flushing queued writes", e);
+        }
+    }
+    
     /**
      * Initializes the application
      */
@@ -58,6 +92,21 @@ public class Main {
                 ConsolePrinter.printWarning("Database unavailable - Memory mode only");
             }
             
+            // Restore pending transactions from the last run
+            ConsolePrinter.printLoading("Restoring mempool");
+            ApplicationContext context = ApplicationContext.getInstance();
+            Duration maxAge = Duration.ofSeconds(Long.parseLong(
+                EnvLoader.get("MEMPOOL_SNAPSHOT_MAX_AGE_SECONDS", "3600")));
+            int restored = context.getMempoolService().restoreMempool(
+                context.getMempoolSnapshotStore(), context.getMempoolRepository(), maxAge);
+            ConsolePrinter.printInfo(restored + " pending transactions restored");
+            
+            // Expire stale pending transactions in the background
+            context.getMempoolExpirySweeper().start();
+            
+            // Keep history partitions created ahead and archive old ones
+            context.getPartitionMaintenanceJob().start();
+            
             // Generate random transactions
             ConsolePrinter.printLoading("Simulating blockchain network");
             ApplicationContext.getInstance().getMempoolService().generateRandomTransactions(15);
@@ -1,6 +1,7 @@
 package app;
 
 import model.Transaction;
+import enums.CryptoType;
 import util.ConsolePrinter;
 import util.LoggerUtil;
 import java.time.Duration;
@@ -11,6 +12,8 @@ import java.util.List;
  */
 public class MempoolHandler {
     
+    private static final int DISPLAYED_ROWS = 10;
+    
     private final ApplicationContext context;
     private final InputReader inputReader;
     
@@ -36,8 +39,13 @@ public class MempoolHandler {
         ConsolePrinter.printTitle("5️⃣  Current Mempool State");
         
         try {
-            List<Transaction> mempoolTx = context.getMempoolService().getMempoolState();
-            ConsolePrinter.printMempoolState(mempoolTx, "");
+            // One table per chain: ranks are per chain and fees are in different units
+            for (CryptoType type : CryptoType.values()) {
+                // Only the rows displayed are read: the pool itself is never copied,
+                // and a row's index in the top-K list is its rank
+                List<Transaction> top = context.getMempoolService().getTopTransactions(type, DISPLAYED_ROWS);
+                ConsolePrinter.printMempoolState(type, top, context.getMempoolService().getSize(type), "");
+            }
             
             System.out.println("\n📊 " + context.getMempoolService().getMempoolStats());
             
@@ -31,8 +31,8 @@ public class MenuHandler {
         ConsolePrinter.clearScreen();
         ConsolePrinter.printMainMenu();
         
-        // Validate menu choice (0-7)
-        int choice = inputReader.readIntInRange("", 0, 7);
+        // Validate menu choice (0-9)
+        int choice = inputReader.readIntInRange("", 0, 9);
         
         try {
             switch (choice) {
@@ -57,6 +57,12 @@ public class MenuHandler {
                 case 7:
                     statisticsHandler.viewStatistics();
                     break;
+                case 8:
+                    transactionHandler.browseHistory();
+                    break;
+                case 9:
+                    walletHandler.transferFunds();
+                    break;
                 case 0:
                     ConsolePrinter.printInfo("Goodbye! 👋");
                     return false;
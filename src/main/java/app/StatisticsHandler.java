@@ -1,6 +1,9 @@
 package app;
 
+import enums.TransactionStatus;
+import model.TransactionStats;
 import util.ConsolePrinter;
+import util.DatabaseConnection;
 import util.LoggerUtil;
 
 /**
@@ -42,6 +45,18 @@ public class StatisticsHandler {
             System.out.println("\n🔄 MEMPOOL");
             System.out.println(repeat("─", 40));
             System.out.println(context.getMempoolService().getMempoolStats());
+            System.out.println(context.getMempoolExpirySweeper().getStats());
+            System.out.println(context.getPartitionMaintenanceJob().getStats());
+            
+            System.out.println("\n🗄️  DATABASE");
+            System.out.println(repeat("─", 40));
+            // Everything ever persisted, not only this session; lags by the write-behind queue
+            TransactionStats persisted = context.getTransactionRepository().getStats();
+            System.out.printf("Stored transactions: %d total (%d pending, %d confirmed, %d rejected)%n",
+                persisted.getTotalCount(), persisted.getCount(TransactionStatus.PENDING),
+                persisted.getCount(TransactionStatus.CONFIRMED), persisted.getCount(TransactionStatus.REJECTED));
+            System.out.println(DatabaseConnection.getInstance().getPool().getStats());
+            System.out.println(context.getWriteBehindWriter().getStats());
             
         } catch (Exception e) {
             ConsolePrinter.printError("Error: " + e.getMessage());
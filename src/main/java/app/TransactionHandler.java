@@ -3,12 +3,16 @@ package app;
 import model.*;
 import enums.*;
 import exception.*;
+import repository.Page;
+import service.HistoryService;
+import service.PageIterator;
 import util.ConsolePrinter;
 import util.LoggerUtil;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * Handles transaction-related operations
@@ -64,15 +68,11 @@ public class TransactionHandler {
             
             lastTransaction = tx;
             
-            // Add to mempool
-            context.getMempoolService().addTransaction(tx);
-            
-            // Save to DB
-            try {
-                context.getTransactionRepository().save(tx);
-                ConsolePrinter.printSuccess("Transaction saved to database");
-            } catch (SQLException e) {
-                ConsolePrinter.printWarning("Transaction created but not saved to DB");
+            // Add to mempool (rejected transactions are already marked REJECTED)
+            if (!context.getMempoolService().addTransaction(tx)) {
+                ConsolePrinter.printWarning(String.format("Mempool full: fees must exceed %.8f %s", 
+                    context.getMempoolService().getMinFeeFloor(type), type.getSymbol()));
+                return;
             }
             
             // Display details
@@ -115,7 +115,7 @@ public class TransactionHandler {
             
             // Simulate positions
             Map<FeeLevel, Integer> positionsMap = new HashMap<>();
-            int basePosition = context.getMempoolService().getSize() / 2;
+            int basePosition = context.getMempoolService().getSize(type) / 2;
             positionsMap.put(FeeLevel.ECONOMIQUE, basePosition + 5);
             positionsMap.put(FeeLevel.STANDARD, basePosition);
             positionsMap.put(FeeLevel.RAPIDE, Math.max(1, basePosition - 5));
@@ -129,6 +129,61 @@ public class TransactionHandler {
         }
     }
     
+    /**
+     * Browses the persisted transaction history one page at a time
+     */
+    public void browseHistory() {
+        ConsolePrinter.printTitle("8️⃣  Transaction History");
+        
+        try {
+            System.out.println("Show:");
+            System.out.println("1. All transactions (newest first)");
+            System.out.println("2. Bitcoin transactions");
+            System.out.println("3. Ethereum transactions");
+            System.out.println("4. Pending transactions (highest fees first)");
+            System.out.println("5. Stored wallets (newest first)");
+            int filter = inputReader.readIntInRange("\n👉 Your choice: ", 1, 5);
+            
+            HistoryService history = context.getHistoryService();
+            if (filter == 5) {
+                showPages(history.wallets(), ConsolePrinter::printWalletPage);
+                return;
+            }
+            PageIterator<Transaction> pages;
+            switch (filter) {
+                case 2:
+                    pages = history.transactionsByType(CryptoType.BITCOIN);
+                    break;
+                case 3:
+                    pages = history.transactionsByType(CryptoType.ETHEREUM);
+                    break;
+                case 4:
+                    pages = history.transactionsByStatus(TransactionStatus.PENDING);
+                    break;
+                default:
+                    pages = history.transactions();
+                    break;
+            }
+            showPages(pages, ConsolePrinter::printTransactionPage);
+            
+        } catch (SQLException e) {
+            ConsolePrinter.printError("History unavailable: " + e.getMessage());
+            LoggerUtil.logError("History browsing error", e);
+        }
+    }
+    
+    /**
+     * Prints pages one at a time, asking before loading the next one
+     */
+    private <T> void showPages(PageIterator<T> pages, BiConsumer<Page<T>, Integer> printer) throws SQLException {
+        while (pages.hasNext()) {
+            printer.accept(pages.next(), pages.getPageNumber());
+            if (!pages.hasNext() || !inputReader.readConfirmation("\n➡️  Next page?")) {
+                break;
+            }
+        }
+    }
+    
     public Transaction getLastTransaction() {
         return lastTransaction;
     }
@@ -2,9 +2,11 @@ package app;
 
 import model.*;
 import enums.CryptoType;
+import enums.FeeLevel;
+import exception.InvalidAmountException;
+import exception.TransactionException;
 import util.ConsolePrinter;
 import util.LoggerUtil;
-import java.sql.SQLException;
 import java.util.List;
 
 /**
@@ -42,14 +44,6 @@ public class WalletHandler {
             Wallet wallet = context.getWalletService().createWallet(type);
             currentWallet = wallet;
             
-            // Save to database
-            try {
-                context.getWalletRepository().save(wallet);
-                ConsolePrinter.printSuccess("Wallet saved to database");
-            } catch (SQLException e) {
-                ConsolePrinter.printWarning("Wallet created but not saved to DB (memory only)");
-            }
-            
             // Display details
             ConsolePrinter.printSuccess("Wallet created successfully!");
             System.out.println("\n📋 Wallet Details:");
@@ -62,13 +56,8 @@ public class WalletHandler {
             if (inputReader.readConfirmation("\n💰 Initialize balance?")) {
                 double balance = inputReader.readDouble("Amount: ");
                 if (balance > 0) {
-                    wallet.updateBalance(balance);
-                    try {
-                        context.getWalletRepository().updateBalance(wallet.getId(), balance);
-                        ConsolePrinter.printSuccess("Balance updated: " + balance + " " + type.getSymbol());
-                    } catch (SQLException e) {
-                        ConsolePrinter.printWarning("Balance updated in memory only");
-                    }
+                    context.getWalletService().updateBalance(wallet.getId(), balance);
+                    ConsolePrinter.printSuccess("Balance updated: " + balance + " " + type.getSymbol());
                 }
             }
             
@@ -113,6 +102,62 @@ public class WalletHandler {
         }
     }
     
+    /**
+     * Transfers funds between two wallets of the same type
+     */
+    public void transferFunds() {
+        ConsolePrinter.printTitle("9️⃣  Transfer Between Wallets");
+        
+        try {
+            List<Wallet> wallets = context.getWalletService().getAllWallets();
+            
+            if (wallets.size() < 2) {
+                ConsolePrinter.printInfo("At least two wallets are needed. Use option 1 to create one.");
+                return;
+            }
+            
+            for (int i = 0; i < wallets.size(); i++) {
+                Wallet w = wallets.get(i);
+                System.out.println((i + 1) + ". " + w.getType() + " " + w.getAddress()
+                    + " - " + w.getBalance() + " " + w.getType().getSymbol());
+            }
+            
+            Wallet from = wallets.get(inputReader.readIntInRange("\n📤 From wallet: ", 1, wallets.size()) - 1);
+            Wallet to = wallets.get(inputReader.readIntInRange("📥 To wallet: ", 1, wallets.size()) - 1);
+            
+            double amount = inputReader.readDouble("💵 Amount: ");
+            if (amount <= 0) {
+                ConsolePrinter.printError("Amount must be positive");
+                return;
+            }
+            
+            System.out.println("\n📊 Fee level:");
+            System.out.println("1. ECONOMIQUE - " + FeeLevel.ECONOMIQUE.getDescription());
+            System.out.println("2. STANDARD - " + FeeLevel.STANDARD.getDescription());
+            System.out.println("3. RAPIDE - " + FeeLevel.RAPIDE.getDescription());
+            
+            int feeLevelChoice = inputReader.readIntInRange("\n👉 Your choice: ", 1, 3);
+            FeeLevel feeLevel = FeeLevel.values()[feeLevelChoice - 1];
+            double fees = context.getTransactionService().getFeeCalculator(from.getType())
+                .calculateFees(amount, feeLevel);
+            
+            context.getWalletService().transfer(from.getId(), to.getId(), amount, fees);
+            
+            ConsolePrinter.printSuccess(String.format("Transferred %.8f %s (fees %.8f)",
+                amount, from.getType().getSymbol(), fees));
+            System.out.println("From balance: " + from.getBalance() + " " + from.getType().getSymbol());
+            System.out.println("To balance: " + to.getBalance() + " " + to.getType().getSymbol());
+            
+        } catch (InvalidAmountException e) {
+            ConsolePrinter.printError("Invalid amount: " + e.getMessage());
+        } catch (TransactionException e) {
+            ConsolePrinter.printError("Transfer refused: " + e.getMessage());
+        } catch (Exception e) {
+            ConsolePrinter.printError("Error transferring funds: " + e.getMessage());
+            LoggerUtil.logError("Wallet transfer error", e);
+        }
+    }
+    
     public Wallet getCurrentWallet() {
         return currentWallet;
     }
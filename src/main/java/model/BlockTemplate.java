@@ -0,0 +1,60 @@
+package model;
+
+import enums.CryptoType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Candidate block: the transactions selected to fill one block of a given capacity
+ */
+public class BlockTemplate {
+
+    private final CryptoType type;
+    private final long capacity;
+    private final List<Transaction> transactions;
+    private long usedCapacity;
+    private double totalFees;
+
+    public BlockTemplate(CryptoType type, long capacity) {
+        this.type = type;
+        this.capacity = capacity;
+        this.transactions = new ArrayList<>();
+    }
+
+    /**
+     * Adds a transaction if it still fits in the block
+     * @param transaction The transaction to add
+     * @param weight Block space consumed by the transaction
+     * @return true if the transaction was added
+     */
+    public boolean tryAdd(Transaction transaction, long weight) {
+        if (usedCapacity + weight > capacity) {
+            return false;
+        }
+        transactions.add(transaction);
+        usedCapacity += weight;
+        totalFees += transaction.getFees();
+        return true;
+    }
+
+    public CryptoType getType() { return type; }
+    public long getCapacity() { return capacity; }
+    public long getUsedCapacity() { return usedCapacity; }
+    public long getRemainingCapacity() { return capacity - usedCapacity; }
+    public double getTotalFees() { return totalFees; }
+    public List<Transaction> getTransactions() { return Collections.unmodifiableList(transactions); }
+    public int size() { return transactions.size(); }
+    public boolean isEmpty() { return transactions.isEmpty(); }
+
+    public double getFillRatio() {
+        return capacity == 0 ? 0.0 : (double) usedCapacity / capacity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Block[%s] %d transactions | %d/%d used (%.1f%%) | Fees: %.8f %s",
+            type, transactions.size(), usedCapacity, capacity, getFillRatio() * 100,
+            totalFees, type.getSymbol());
+    }
+}
@@ -0,0 +1,96 @@
+package model;
+
+/**
+ * Running fee aggregates with log-scale buckets
+ * Updated on every insert/removal so that count, average, percentiles and
+ * bucket counts are read in constant time instead of scanning the pool.
+ * Bucket i covers fees in [MIN_FEE * 2^(i/4), MIN_FEE * 2^((i+1)/4)).
+ */
+public class FeeHistogram {
+
+    public static final int BUCKET_COUNT = 128;
+    private static final double MIN_FEE = 0.000000001;
+    private static final int BUCKETS_PER_DOUBLING = 4;
+
+    private final long[] buckets;
+    private long count;
+    private double totalFees;
+    private double lowestFees;
+    private double highestFees;
+
+    public FeeHistogram() {
+        this.buckets = new long[BUCKET_COUNT];
+    }
+
+    public void add(double fees) {
+        buckets[bucketOf(fees)]++;
+        count++;
+        totalFees += fees;
+    }
+
+    public void remove(double fees) {
+        buckets[bucketOf(fees)]--;
+        count--;
+        // Reset to avoid floating-point drift accumulating across add/remove cycles
+        totalFees = count == 0 ? 0.0 : totalFees - fees;
+    }
+
+    /**
+     * Copy of the current aggregates, tagged with the exact fee range of the pool
+     */
+    public FeeHistogram snapshot(double lowest, double highest) {
+        FeeHistogram copy = new FeeHistogram();
+        System.arraycopy(buckets, 0, copy.buckets, 0, BUCKET_COUNT);
+        copy.count = count;
+        copy.totalFees = totalFees;
+        copy.lowestFees = lowest;
+        copy.highestFees = highest;
+        return copy;
+    }
+
+    public long getCount() { return count; }
+    public double getTotalFees() { return totalFees; }
+    public double getLowestFees() { return lowestFees; }
+    public double getHighestFees() { return highestFees; }
+    public long getBucketCount(int bucket) { return buckets[bucket]; }
+
+    public double getAverageFees() {
+        return count == 0 ? 0.0 : totalFees / count;
+    }
+
+    /**
+     * Approximate fee percentile, resolved to the upper bound of a bucket
+     * @param percentile Value between 0 and 100
+     * @return Fee below which the given share of transactions falls
+     */
+    public double getPercentile(double percentile) {
+        if (count == 0) {
+            return 0.0;
+        }
+        long target = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= target && seen > 0) {
+                return Math.min(bucketUpperBound(i), highestFees > 0 ? highestFees : Double.MAX_VALUE);
+            }
+        }
+        return highestFees;
+    }
+
+    public static int bucketOf(double fees) {
+        if (fees <= MIN_FEE) {
+            return 0;
+        }
+        int bucket = (int) Math.floor(Math.log(fees / MIN_FEE) / Math.log(2) * BUCKETS_PER_DOUBLING);
+        return Math.max(0, Math.min(BUCKET_COUNT - 1, bucket));
+    }
+
+    public static double bucketLowerBound(int bucket) {
+        return MIN_FEE * Math.pow(2, (double) bucket / BUCKETS_PER_DOUBLING);
+    }
+
+    public static double bucketUpperBound(int bucket) {
+        return bucketLowerBound(bucket + 1);
+    }
+}
@@ -1,43 +1,323 @@
 package model;
 
+import enums.TransactionStatus;
 import util.LoggerUtil;
+import util.OrderStatisticTree;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
 
+/**
+ * Thread-safe pool of pending transactions ordered by priority
+ * Readers share a read lock, producers and confirmers take the write lock,
+ * so size() and top-K reads always observe a consistent pool.
+ */
 public class Mempool {
-    
-    private final List<Transaction> transactions;
+
+    /**
+     * Mempool priority: highest fees first, then oldest first, then id as a tie-breaker
+     * so that two distinct transactions never compare as equal.
+     */
+    public static final Comparator<Transaction> FEE_PRIORITY =
+        Comparator.comparingDouble(Transaction::getFees).reversed()
+            .thenComparing(Transaction::getCreatedAt)
+            .thenComparing(Transaction::getId);
+
+    // Rough heap footprint of one pooled transaction, excluding its strings
+    private static final long ENTRY_OVERHEAD_BYTES = 160;
+
+    // Fees must not change while a transaction is in the set, otherwise it can no longer be located
+    private final OrderStatisticTree<Transaction> transactions;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
     private static final int BLOCK_TIME_MINUTES = 10;
-    
+
+    // Capacity limits (0 = unbounded)
+    private final int maxTransactions;
+    private final long maxBytes;
+    private long usedBytes;
+    private long evictedCount;
+
+    // Running fee aggregates and id index, kept in step with the tree under the write lock
+    private final FeeHistogram histogram = new FeeHistogram();
+    private final Map<String, Transaction> byId = new HashMap<>();
+
+    // Creation-time index so expiry walks only the oldest entries
+    private static final Comparator<Transaction> CREATION_ORDER =
+        Comparator.comparing(Transaction::getCreatedAt).thenComparing(Transaction::getId);
+    private final NavigableSet<Transaction> byCreation = new TreeSet<>(CREATION_ORDER);
+
+    // Fee a new transaction must exceed once the pool has had to evict
+    private volatile double minFeeFloor;
+
     public Mempool() {
-        this.transactions = new ArrayList<>();
-        LoggerUtil.logInfo("Mempool initialisé");
+        this(0, 0);
+    }
+
+    /**
+     * Bounded mempool: when full, the lowest-priority transactions are evicted
+     * @param maxTransactions Maximum number of entries (0 = unbounded)
+     * @param maxBytes Maximum estimated heap footprint in bytes (0 = unbounded)
+     */
+    public Mempool(int maxTransactions, long maxBytes) {
+        this.transactions = new OrderStatisticTree<>(FEE_PRIORITY);
+        this.maxTransactions = maxTransactions;
+        this.maxBytes = maxBytes;
+        LoggerUtil.logInfo(String.format("Mempool initialisé (max: %d transactions, %d bytes)",
+            maxTransactions, maxBytes));
+    }
+
+    /**
+     * Adds a transaction, evicting the lowest-fee entries if the pool overflows
+     * Evicted transactions and submissions below the fee floor are marked REJECTED.
+     * @param transaction The transaction to add
+     * @return true if the transaction is in the pool after the call
+     */
+    public boolean addTransaction(Transaction transaction) {
+        // No floor (0) until the pool overflows: zero-fee submissions are accepted until then
+        if (minFeeFloor > 0 && transaction.getFees() <= minFeeFloor) {
+            reject(transaction, String.format("Fees below mempool floor %.8f", minFeeFloor));
+            return false;
+        }
+
+        List<Transaction> evicted = new ArrayList<>();
+        int position;
+        lock.writeLock().lock();
+        try {
+            admit(transaction);
+            evictOverflow(evicted);
+            position = transactions.rank(transaction) + 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (Transaction tx : evicted) {
+            reject(tx, "Evicted: mempool full");
+        }
+        if (position == 0) {
+            return false;
+        }
+        LoggerUtil.logTransaction(transaction.getId(), "ADDED_TO_MEMPOOL",
+            String.format("Position: %d", position));
+        return true;
     }
 
-    public void addTransaction(Transaction transaction) {
-        transactions.add(transaction);
-        sortTransactionsByFees();
-        LoggerUtil.logTransaction(transaction.getId(), "ADDED_TO_MEMPOOL", 
-            String.format("Position: %d", getPosition(transaction)));
+    /**
+     * Bulk load (e.g. on restart) under a single write lock, without per-entry logging
+     * @param batch The transactions to add
+     * @return Net growth of the pool once capacity limits were applied
+     */
+    public int addTransactions(Collection<Transaction> batch) {
+        List<Transaction> evicted = new ArrayList<>();
+        int admitted;
+        lock.writeLock().lock();
+        try {
+            int before = transactions.size();
+            for (Transaction tx : batch) {
+                admit(tx);
+            }
+            evictOverflow(evicted);
+            admitted = transactions.size() - before;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (Transaction tx : evicted) {
+            reject(tx, "Evicted: mempool full");
+        }
+        LoggerUtil.logInfo(String.format("%d transactions loaded into mempool", admitted));
+        return admitted;
     }
 
     public boolean removeTransaction(Transaction transaction) {
-        boolean removed = transactions.remove(transaction);
+        boolean removed;
+        lock.writeLock().lock();
+        try {
+            removed = detach(transaction);
+        } finally {
+            lock.writeLock().unlock();
+        }
         if (removed) {
             LoggerUtil.logTransaction(transaction.getId(), "REMOVED_FROM_MEMPOOL", "Confirmée");
         }
         return removed;
     }
 
-    private void sortTransactionsByFees() {
-        transactions.sort((t1, t2) -> Double.compare(t2.getFees(), t1.getFees()));
+    /**
+     * Atomically removes a set of transactions
+     * @param batch The transactions to remove
+     * @return The transactions that were still in the pool and have been removed
+     */
+    public List<Transaction> removeTransactions(Collection<Transaction> batch) {
+        List<Transaction> removed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (Transaction tx : batch) {
+                if (detach(tx)) {
+                    removed.add(tx);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes a transaction by ID in O(1) lookup + O(log n) tree removal
+     * @param transactionId The transaction ID
+     * @return The removed transaction, or empty if it is not in the pool
+     */
+    public Optional<Transaction> removeById(String transactionId) {
+        Transaction removed;
+        lock.writeLock().lock();
+        try {
+            removed = byId.get(transactionId);
+            if (removed != null) {
+                detach(removed);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (removed != null) {
+            LoggerUtil.logTransaction(transactionId, "REMOVED_FROM_MEMPOOL", "Retirée");
+        }
+        return Optional.ofNullable(removed);
+    }
+
+    /**
+     * Looks up a pending transaction by ID in O(1)
+     */
+    public Optional<Transaction> findById(String transactionId) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(byId.get(transactionId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replace-by-fee: atomically swaps a pending transaction for a higher-fee version
+     * The replacement is inserted at its new rank; the original is marked REJECTED.
+     * @param originalId ID of the pending transaction to replace
+     * @param replacement New transaction from the same sender with strictly higher fees
+     * @return true if the replacement took place
+     */
+    public boolean replaceByFee(String originalId, Transaction replacement) {
+        Transaction original;
+        List<Transaction> evicted = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            original = byId.get(originalId);
+            if (original == null
+                    || !original.getFromAddress().equals(replacement.getFromAddress())
+                    || replacement.getFees() <= original.getFees()) {
+                return false;
+            }
+            detach(original);
+            admit(replacement);
+            evictOverflow(evicted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (Transaction tx : evicted) {
+            reject(tx, "Evicted: mempool full");
+        }
+        reject(original, "Replaced by " + replacement.getId());
+        LoggerUtil.logTransaction(replacement.getId(), "REPLACED_BY_FEE",
+            String.format("Replaces %s, fees %.8f -> %.8f", originalId, original.getFees(), replacement.getFees()));
+        return true;
+    }
+
+    /**
+     * Expires the oldest pending transactions, walking the creation-time index
+     * Expired transactions are removed and marked REJECTED.
+     * @param cutoff Transactions created before this instant expire
+     * @param maxBatch Maximum number of transactions to expire in this call
+     * @return The expired transactions, oldest first
+     */
+    public List<Transaction> expireOlderThan(LocalDateTime cutoff, int maxBatch) {
+        List<Transaction> expired = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            while (expired.size() < maxBatch && !byCreation.isEmpty()
+                    && byCreation.first().getCreatedAt().isBefore(cutoff)) {
+                Transaction oldest = byCreation.first();
+                detach(oldest);
+                expired.add(oldest);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (Transaction tx : expired) {
+            reject(tx, "Expired: pending since " + tx.getCreatedAt());
+        }
+        return expired;
+    }
+
+    /**
+     * Atomically removes and returns the highest-priority transactions
+     * Concurrent confirmers never receive the same transaction twice.
+     * @param count Maximum number of transactions to take
+     * @return The removed transactions, highest priority first
+     */
+    public List<Transaction> pollTopTransactions(int count) {
+        List<Transaction> polled = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            while (polled.size() < count && !transactions.isEmpty()) {
+                Transaction tx = transactions.pollFirst();
+                released(tx);
+                polled.add(tx);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return polled;
     }
 
     public int getPosition(Transaction transaction) {
-        sortTransactionsByFees();
-        return transactions.indexOf(transaction) + 1;
+        lock.readLock().lock();
+        try {
+            return transactions.rank(transaction) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Positions of several transactions given by ID, one O(1) lookup and O(log n) rank each
+     * @param transactionIds The transaction IDs to locate
+     * @return Position by transaction ID (IDs not in the mempool are omitted)
+     */
+    public Map<String, Integer> getPositionsById(Collection<String> transactionIds) {
+        Map<String, Integer> positions = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String id : transactionIds) {
+                Transaction tx = byId.get(id);
+                if (tx != null) {
+                    positions.put(id, transactions.rank(tx) + 1);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return positions;
     }
 
     public Duration estimateWaitingTime(Transaction transaction) {
@@ -47,8 +327,47 @@ public class Mempool {
     }
 
     public List<Transaction> getTransactionsByFees() {
-        sortTransactionsByFees();
-        return new ArrayList<>(transactions);
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(transactions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Consistent snapshot of the highest-priority transactions
+     * Walks only the first count entries: O(count), the pool is not copied.
+     * @param count Maximum number of transactions to return
+     * @return Up to count transactions, highest priority first
+     */
+    public List<Transaction> getTopTransactions(int count) {
+        List<Transaction> top = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Iterator<Transaction> it = transactions.iterator();
+            while (top.size() < count && it.hasNext()) {
+                top.add(it.next());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top;
+    }
+
+    /**
+     * Walks the pool in priority order under the read lock, without copying it
+     * @param visitor Called for each transaction; returning false stops the walk
+     */
+    public void forEachByFees(Predicate<Transaction> visitor) {
+        lock.readLock().lock();
+        try {
+            for (Transaction tx : transactions) {
+                if (!visitor.test(tx)) break;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public void generateRandomTransactions(int count) {
@@ -56,10 +375,118 @@ public class Mempool {
     }
 
     public int size() {
-        return transactions.size();
+        lock.readLock().lock();
+        try {
+            return transactions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public boolean isEmpty() {
-        return transactions.isEmpty();
+        return size() == 0;
+    }
+
+    public double getMinFeeFloor() {
+        return minFeeFloor;
+    }
+
+    public long getEvictedCount() {
+        lock.readLock().lock();
+        try {
+            return evictedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fee statistics of the pool, read in constant time
+     * @return A snapshot of the running aggregates and fee buckets
+     */
+    public FeeHistogram getFeeHistogram() {
+        lock.readLock().lock();
+        try {
+            if (transactions.isEmpty()) {
+                return histogram.snapshot(0.0, 0.0);
+            }
+            return histogram.snapshot(transactions.last().getFees(), transactions.first().getFees());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getUsedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimated heap footprint of a pooled transaction
+     */
+    public static long estimateBytes(Transaction transaction) {
+        int chars = transaction.getId().length() + transaction.getFromAddress().length()
+            + transaction.getToAddress().length();
+        return ENTRY_OVERHEAD_BYTES + 2L * chars;
+    }
+
+    // Caller must hold the write lock
+    private boolean admit(Transaction transaction) {
+        if (byId.containsKey(transaction.getId()) || !transactions.add(transaction)) {
+            return false;
+        }
+        byId.put(transaction.getId(), transaction);
+        byCreation.add(transaction);
+        usedBytes += estimateBytes(transaction);
+        histogram.add(transaction.getFees());
+        return true;
+    }
+
+    // Caller must hold the write lock
+    private boolean detach(Transaction transaction) {
+        if (!transactions.remove(transaction)) {
+            return false;
+        }
+        released(transaction);
+        return true;
+    }
+
+    // Caller must hold the write lock; evicted entries are collected so they can be rejected outside it
+    private void evictOverflow(List<Transaction> evicted) {
+        while (isOverCapacity()) {
+            Transaction lowest = transactions.pollLast();
+            released(lowest);
+            evictedCount++;
+            minFeeFloor = Math.max(minFeeFloor, lowest.getFees());
+            evicted.add(lowest);
+        }
+    }
+
+    // Caller must hold the write lock
+    private boolean isOverCapacity() {
+        return (maxTransactions > 0 && transactions.size() > maxTransactions)
+            || (maxBytes > 0 && usedBytes > maxBytes);
+    }
+
+    // Caller must hold the write lock; the floor is lifted once the pool has drained to half capacity
+    private void released(Transaction transaction) {
+        byId.remove(transaction.getId());
+        byCreation.remove(transaction);
+        usedBytes -= estimateBytes(transaction);
+        histogram.remove(transaction.getFees());
+        if (minFeeFloor > 0
+                && (maxTransactions <= 0 || transactions.size() <= maxTransactions / 2)
+                && (maxBytes <= 0 || usedBytes <= maxBytes / 2)) {
+            minFeeFloor = 0.0;
+        }
+    }
+
+    private void reject(Transaction transaction, String reason) {
+        transaction.setStatus(TransactionStatus.REJECTED);
+        LoggerUtil.logTransaction(transaction.getId(), "REJECTED_BY_MEMPOOL", reason);
     }
-}
\ No newline at end of file
+}
@@ -6,9 +6,14 @@ import enums.TransactionStatus;
 import util.UUIDGenerator;
 import util.LoggerUtil;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Transaction {
     
+    private static final List<TransactionStatusListener> statusListeners = new CopyOnWriteArrayList<>();
+    
     private final String id;
     private final String fromAddress;
     private final String toAddress;
@@ -16,7 +21,7 @@ public class Transaction {
     private final CryptoType type;
     private final FeeLevel feeLevel;
     private double fees;
-    private TransactionStatus status;
+    private volatile TransactionStatus status;
     private final LocalDateTime createdAt;
     
     public Transaction(String fromAddress, String toAddress, double amount, 
@@ -29,13 +34,33 @@ public class Transaction {
         this.feeLevel = feeLevel;
         this.fees = 0.0; // Sera calculé par le service
         this.status = TransactionStatus.PENDING;
-        this.createdAt = LocalDateTime.now();
+        // PostgreSQL timestamps keep microseconds: truncated so the stored value equals this one
+        // (created_at is part of the key that status updates look rows up by)
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         
         LoggerUtil.logTransaction(id, "CREATED", 
             String.format("From: %s, To: %s, Amount: %.8f %s", 
                 fromAddress, toAddress, amount, type.getSymbol()));
     }
     
+    /**
+     * Rehydration constructor for transactions loaded from storage
+     * Keeps the stored identity, fees, status and timestamp.
+     */
+    public Transaction(String id, String fromAddress, String toAddress, double amount,
+                       CryptoType type, FeeLevel feeLevel, double fees,
+                       TransactionStatus status, LocalDateTime createdAt) {
+        this.id = id;
+        this.fromAddress = fromAddress;
+        this.toAddress = toAddress;
+        this.amount = amount;
+        this.type = type;
+        this.feeLevel = feeLevel;
+        this.fees = fees;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+    
     // Getters
     public String getId() { return id; }
     public String getFromAddress() { return fromAddress; }
@@ -53,15 +78,33 @@ public class Transaction {
     }
     
     public void setStatus(TransactionStatus newStatus) {
-        if (status.canTransitionTo(newStatus)) {
-            TransactionStatus oldStatus = this.status;
+        TransactionStatus oldStatus;
+        synchronized (this) {
+            if (!status.canTransitionTo(newStatus)) {
+                LoggerUtil.logWarning(String.format("Transition invalide pour transaction %s: %s -> %s", 
+                    id, status, newStatus));
+                return;
+            }
+            oldStatus = this.status;
             this.status = newStatus;
-            LoggerUtil.logTransaction(id, "STATUS_CHANGE", 
-                String.format("%s -> %s", oldStatus, newStatus));
-        } else {
-            LoggerUtil.logWarning(String.format("Transition invalide pour transaction %s: %s -> %s", 
-                id, status, newStatus));
         }
+        LoggerUtil.logTransaction(id, "STATUS_CHANGE", 
+            String.format("%s -> %s", oldStatus, newStatus));
+        
+        for (TransactionStatusListener listener : statusListeners) {
+            listener.onStatusChange(this, oldStatus, newStatus);
+        }
+    }
+    
+    /**
+     * Registers a listener notified of every status change
+     */
+    public static void addStatusListener(TransactionStatusListener listener) {
+        statusListeners.add(listener);
+    }
+    
+    public static void removeStatusListener(TransactionStatusListener listener) {
+        statusListeners.remove(listener);
     }
     
 
@@ -70,7 +113,7 @@ public class Transaction {
     }
 
     public String getShortId() {
-        return id.substring(0, 8) + "...";
+        return "..." + UUIDGenerator.shortId(id);
     }
     
     @Override
@@ -0,0 +1,92 @@
+package model;
+
+import enums.CryptoType;
+import enums.TransactionStatus;
+
+/**
+ * Running transaction aggregates per (crypto type, status)
+ * Moved on every creation and status transition so that counts and totals
+ * are read in constant time, the same layout as the transaction_stats table
+ * (see sql/schema.sql). Thread-safe.
+ */
+public class TransactionStats {
+
+    private static final int TYPES = CryptoType.values().length;
+    private static final int STATUSES = TransactionStatus.values().length;
+
+    private final long[][] counts = new long[TYPES][STATUSES];
+    private final double[][] amounts = new double[TYPES][STATUSES];
+    private final double[][] fees = new double[TYPES][STATUSES];
+
+    public synchronized void add(CryptoType type, TransactionStatus status, double amount, double fee) {
+        addRow(type.ordinal(), status.ordinal(), 1, amount, fee);
+    }
+
+    /**
+     * Moves one transaction from a status to another
+     */
+    public synchronized void move(CryptoType type, TransactionStatus from, TransactionStatus to,
+                                  double amount, double fee) {
+        addRow(type.ordinal(), from.ordinal(), -1, -amount, -fee);
+        addRow(type.ordinal(), to.ordinal(), 1, amount, fee);
+    }
+
+    /**
+     * Adds pre-aggregated rows (used when loading the stats from the database)
+     */
+    public synchronized void addAggregate(CryptoType type, TransactionStatus status,
+                                          long count, double totalAmount, double totalFees) {
+        addRow(type.ordinal(), status.ordinal(), count, totalAmount, totalFees);
+    }
+
+    public void add(Transaction tx) {
+        add(tx.getType(), tx.getStatus(), tx.getAmount(), tx.getFees());
+    }
+
+    public synchronized long getCount(CryptoType type, TransactionStatus status) {
+        return counts[type.ordinal()][status.ordinal()];
+    }
+
+    public synchronized long getCount(TransactionStatus status) {
+        long total = 0;
+        for (int t = 0; t < TYPES; t++) {
+            total += counts[t][status.ordinal()];
+        }
+        return total;
+    }
+
+    public synchronized long getTotalCount() {
+        long total = 0;
+        for (long[] row : counts) {
+            for (long count : row) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    public synchronized double getTotalAmount(CryptoType type, TransactionStatus status) {
+        return amounts[type.ordinal()][status.ordinal()];
+    }
+
+    public synchronized double getTotalFees(CryptoType type, TransactionStatus status) {
+        return fees[type.ordinal()][status.ordinal()];
+    }
+
+    public synchronized double getAverageFees(CryptoType type, TransactionStatus status) {
+        long count = counts[type.ordinal()][status.ordinal()];
+        return count == 0 ? 0.0 : fees[type.ordinal()][status.ordinal()] / count;
+    }
+
+    private void addRow(int t, int s, long count, double amount, double fee) {
+        counts[t][s] += count;
+        // Reset to avoid floating-point drift accumulating across add/move cycles
+        if (counts[t][s] == 0) {
+            amounts[t][s] = 0.0;
+            fees[t][s] = 0.0;
+        } else {
+            amounts[t][s] += amount;
+            fees[t][s] += fee;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package model;
+
+import enums.TransactionStatus;
+
+/**
+ * Notified after a transaction changes status
+ * Called on the thread that changed the status, outside the transaction's lock.
+ */
+@FunctionalInterface
+public interface TransactionStatusListener {
+
+    void onStatusChange(Transaction transaction, TransactionStatus oldStatus, TransactionStatus newStatus);
+}
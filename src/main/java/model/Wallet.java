@@ -17,7 +17,8 @@ public abstract class Wallet {
     protected final String id;
     protected final String address;
     protected final CryptoType type;
-    protected double balance;
+    // Changed under WalletService's per-wallet lock; volatile for lock-free readers
+    protected volatile double balance;
     protected final LocalDateTime createdAt;
     protected final List<Transaction> transactions;
     
@@ -34,7 +35,7 @@ public abstract class Wallet {
         this.transactions = new ArrayList<>();
         
         LoggerUtil.logInfo(String.format("Wallet created: %s [%s] - Address: %s", 
-            id.substring(0, 8), type, address));
+            UUIDGenerator.shortId(id), type, address));
     }
     
 
@@ -106,7 +107,7 @@ public abstract class Wallet {
     public void addTransaction(Transaction transaction) {
         transactions.add(transaction);
         LoggerUtil.logTransaction(transaction.getId(), "ADDED_TO_WALLET", 
-            String.format("Wallet: %s", id.substring(0, 8)));
+            String.format("Wallet: %s", UUIDGenerator.shortId(id)));
     }
     
     /**
@@ -118,7 +119,7 @@ public abstract class Wallet {
         this.balance = newBalance;
         
         LoggerUtil.logInfo(String.format("Balance updated for wallet %s: %.8f -> %.8f %s", 
-            id.substring(0, 8), oldBalance, newBalance, type.getSymbol()));
+            UUIDGenerator.shortId(id), oldBalance, newBalance, type.getSymbol()));
     }
     
     /**
@@ -144,6 +145,6 @@ public abstract class Wallet {
     @Override
     public String toString() {
         return String.format("Wallet[%s] %s - Balance: %.8f %s", 
-            id.substring(0, 8), address, balance, type.getSymbol());
+            UUIDGenerator.shortId(id), address, balance, type.getSymbol());
     }
 }
\ No newline at end of file
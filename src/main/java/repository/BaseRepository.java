@@ -1,11 +1,21 @@
 package repository;
 
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
 import util.DatabaseConnection;
+import util.EnvLoader;
 import util.LoggerUtil;
+import util.UUIDGenerator;
+import java.io.IOException;
+import java.io.StringReader;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Abstract base repository with common database operations
@@ -14,6 +24,15 @@ import java.util.Optional;
  */
 public abstract class BaseRepository<T> {
     
+    /** Rows per committed batch for bulk inserts */
+    protected static final int BATCH_SIZE = Integer.parseInt(EnvLoader.get("DB_BATCH_SIZE", "1000"));
+    
+    /** Rows fetched per round trip by streaming queries */
+    protected static final int FETCH_SIZE = Integer.parseInt(EnvLoader.get("DB_FETCH_SIZE", "500"));
+    
+    /** Use PostgreSQL COPY instead of batched INSERTs for bulk inserts */
+    protected static final boolean USE_COPY = Boolean.parseBoolean(EnvLoader.get("DB_BULK_USE_COPY", "false"));
+    
     protected final DatabaseConnection dbConnection;
     
     /**
@@ -69,9 +88,9 @@ public abstract class BaseRepository<T> {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             setParameters(stmt, params);
-            ResultSet rs = stmt.executeQuery();
-            
-            return mapResultSetToList(rs);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return mapResultSetToList(rs);
+            }
             
         } catch (SQLException e) {
             LoggerUtil.logError("Error executing parameterized query", e);
@@ -79,6 +98,68 @@ public abstract class BaseRepository<T> {
         }
     }
     
+    /**
+     * Executes one page of a keyset-paginated query
+     * The SQL must end with "LIMIT ?"; one extra row is fetched to know whether a next page exists.
+     * @param sql The SQL query, ordered on the columns the cursor captures
+     * @param pageSize Maximum number of entities in the page
+     * @param cursorOf Builds the cursor of an entity (used on the last one of the page)
+     * @param params The parameters, without the limit
+     * @return The page and the cursor of the next one
+     * @throws SQLException if error occurs
+     */
+    protected Page<T> executePageQuery(String sql, int pageSize, Function<T, PageCursor> cursorOf,
+                                       Object... params) throws SQLException {
+        Object[] withLimit = Arrays.copyOf(params, params.length + 1);
+        withLimit[params.length] = pageSize + 1;
+        
+        List<T> rows = executeQuery(sql, withLimit);
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, pageSize));
+        return new Page<>(items, cursorOf.apply(items.get(pageSize - 1)));
+    }
+    
+    /**
+     * Streams a query row by row instead of materializing a list
+     * Runs inside a read transaction so the driver uses a cursor and keeps only
+     * FETCH_SIZE rows in memory; statement, ResultSet and connection are closed on return.
+     * @param sql The SQL query
+     * @param action Called for each mapped entity
+     * @param params The parameters
+     * @return Number of rows visited
+     * @throws SQLException if error occurs
+     */
+    protected long forEach(String sql, Consumer<? super T> action, Object... params) throws SQLException {
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setFetchSize(FETCH_SIZE);
+                setParameters(stmt, params);
+                
+                long rows = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(mapResultSetToEntity(rs));
+                        rows++;
+                    }
+                }
+                conn.commit();
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            LoggerUtil.logError("Error streaming query: " + sql, e);
+            throw e;
+        }
+    }
+    
     /**
      * Executes a query that returns a single entity
      * @param sql The SQL query
@@ -111,6 +192,112 @@ public abstract class BaseRepository<T> {
         }
     }
     
+    /**
+     * Runs a statement over many rows with JDBC batching, committing every BATCH_SIZE rows
+     * Batches committed before a failure stay committed; the failing one is rolled back.
+     * @param sql The parameterized INSERT or UPDATE
+     * @param entities The rows to write
+     * @param toParams Maps a row to the statement parameters
+     * @return Row count and per-batch timings
+     * @throws SQLException if error occurs
+     */
+    protected <E> BatchResult executeBatch(String sql, Collection<? extends E> entities,
+                                           Function<? super E, Object[]> toParams) throws SQLException {
+        BatchResult result = new BatchResult(getTableName(), "batch");
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            conn.setAutoCommit(false);
+            try {
+                int pending = 0;
+                long start = System.nanoTime();
+                for (E entity : entities) {
+                    setParameters(stmt, toParams.apply(entity));
+                    stmt.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        stmt.executeBatch();
+                        conn.commit();
+                        recordBatch(result, pending, System.nanoTime() - start);
+                        pending = 0;
+                        start = System.nanoTime();
+                    }
+                }
+                if (pending > 0) {
+                    stmt.executeBatch();
+                    conn.commit();
+                    recordBatch(result, pending, System.nanoTime() - start);
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            LoggerUtil.logError("Error executing batch on " + getTableName()
+                + " after " + result.getRows() + " rows", e);
+            throw e;
+        }
+        
+        LoggerUtil.logInfo(result.toString());
+        return result;
+    }
+    
+    /**
+     * Inserts entities with PostgreSQL COPY (CSV), committing every BATCH_SIZE rows
+     * @param sql The COPY ... FROM STDIN WITH (FORMAT csv) statement
+     * @param entities The entities to insert
+     * @param toRow Maps an entity to its column values, in COPY column order
+     * @return Row count and per-batch timings
+     * @throws SQLException if error occurs
+     */
+    protected BatchResult executeCopy(String sql, Collection<? extends T> entities,
+                                      Function<T, Object[]> toRow) throws SQLException {
+        BatchResult result = new BatchResult(getTableName(), "COPY");
+        
+        try (Connection conn = dbConnection.getConnection()) {
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+            
+            conn.setAutoCommit(false);
+            try {
+                StringBuilder csv = new StringBuilder();
+                int pending = 0;
+                long start = System.nanoTime();
+                for (T entity : entities) {
+                    appendCsvRow(csv, toRow.apply(entity));
+                    if (++pending == BATCH_SIZE) {
+                        copyManager.copyIn(sql, new StringReader(csv.toString()));
+                        conn.commit();
+                        recordBatch(result, pending, System.nanoTime() - start);
+                        csv.setLength(0);
+                        pending = 0;
+                        start = System.nanoTime();
+                    }
+                }
+                if (pending > 0) {
+                    copyManager.copyIn(sql, new StringReader(csv.toString()));
+                    conn.commit();
+                    recordBatch(result, pending, System.nanoTime() - start);
+                }
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                throw e instanceof SQLException ? (SQLException) e : new SQLException("COPY failed", e);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            LoggerUtil.logError("Error executing COPY into " + getTableName()
+                + " after " + result.getRows() + " rows", e);
+            throw e;
+        }
+        
+        LoggerUtil.logInfo(result.toString());
+        return result;
+    }
+    
     /**
      * Counts records in the table
      * @return Total count
@@ -148,12 +335,9 @@ public abstract class BaseRepository<T> {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             setParameters(stmt, params);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
             }
-            return 0;
             
         } catch (SQLException e) {
             LoggerUtil.logError("Error counting with WHERE clause", e);
@@ -173,10 +357,10 @@ public abstract class BaseRepository<T> {
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, id);
-            ResultSet rs = stmt.executeQuery();
-            
-            return rs.next();
+            stmt.setObject(1, UUIDGenerator.toUuid(id));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
             
         } catch (SQLException e) {
             LoggerUtil.logError("Error checking existence", e);
@@ -192,10 +376,10 @@ public abstract class BaseRepository<T> {
      */
     public boolean deleteById(String id) throws SQLException {
         String sql = "DELETE FROM " + getTableName() + " WHERE id = ?";
-        int rows = executeUpdate(sql, id);
+        int rows = executeUpdate(sql, UUIDGenerator.toUuid(id));
         
         if (rows > 0) {
-            LoggerUtil.logInfo("Deleted from " + getTableName() + ": " + id.substring(0, 8));
+            LoggerUtil.logInfo("Deleted from " + getTableName() + ": " + UUIDGenerator.shortId(id));
             return true;
         }
         return false;
@@ -215,6 +399,28 @@ public abstract class BaseRepository<T> {
         return entities;
     }
     
+    private void recordBatch(BatchResult result, int rows, long nanos) {
+        result.record(rows, nanos);
+        LoggerUtil.logDebug(String.format("%s batch %d: %d rows in %.1f ms (%.0f rows/s)",
+            getTableName(), result.getBatchCount(), rows, nanos / 1_000_000.0,
+            BatchResult.rowsPerSecond(rows, nanos)));
+    }
+    
+    /**
+     * Appends one CSV line; every value is quoted so separators in strings are safe
+     */
+    private static void appendCsvRow(StringBuilder csv, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.append(',');
+            }
+            if (values[i] != null) {
+                csv.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+            }
+        }
+        csv.append('\n');
+    }
+    
     /**
      * Sets parameters on a prepared statement
      * @param stmt The PreparedStatement
@@ -0,0 +1,58 @@
+package repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk insert: rows written and the time spent on each committed batch
+ */
+public class BatchResult {
+
+    private final String table;
+    private final String method;
+    private final List<Integer> batchRows = new ArrayList<>();
+    private final List<Long> batchNanos = new ArrayList<>();
+    private long rows;
+    private long totalNanos;
+
+    public BatchResult(String table, String method) {
+        this.table = table;
+        this.method = method;
+    }
+
+    /**
+     * Records one committed batch
+     */
+    void record(int count, long nanos) {
+        batchRows.add(count);
+        batchNanos.add(nanos);
+        rows += count;
+        totalNanos += nanos;
+    }
+
+    public String getTable() { return table; }
+    public String getMethod() { return method; }
+    public long getRows() { return rows; }
+    public int getBatchCount() { return batchRows.size(); }
+    public List<Integer> getBatchRows() { return Collections.unmodifiableList(batchRows); }
+    public List<Long> getBatchNanos() { return Collections.unmodifiableList(batchNanos); }
+
+    public double getTotalMillis() {
+        return totalNanos / 1_000_000.0;
+    }
+
+    public double getRowsPerSecond() {
+        return totalNanos == 0 ? 0.0 : rows * 1_000_000_000.0 / totalNanos;
+    }
+
+    public static double rowsPerSecond(int count, long nanos) {
+        return nanos == 0 ? 0.0 : count * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s: %d rows in %d batches, %.1f ms (%.0f rows/s)",
+            table, method, rows, batchRows.size(), getTotalMillis(), getRowsPerSecond());
+    }
+}
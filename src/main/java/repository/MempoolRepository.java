@@ -2,18 +2,15 @@ package repository ;
 
 import model.Transaction;
 import enums.TransactionStatus;
-import util.LoggerUtil;
+import util.UUIDGenerator;
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class MempoolRepository extends BaseRepository<Transaction> {
 
-    private final TransactionRepository transactionRepository ;
-
     public MempoolRepository(){
         super();
-        this.transactionRepository = new TransactionRepository();
     }
 
     @Override
@@ -23,34 +20,54 @@ public class MempoolRepository extends BaseRepository<Transaction> {
 
     @Override
     protected Transaction mapResultSetToEntity(ResultSet rs) throws SQLException {
-        return transactionRepository.mapResultSetToEntity(rs);
+        return TransactionRepository.ROW_MAPPER.map(rs);
     }
 
      public List<Transaction> findAllPendingOrderedByFees() throws SQLException {
-        String sql = "SELECT * FROM transactions WHERE status = ? ORDER BY fees DESC, created_at ASC";
+        String sql = "SELECT " + TransactionRepository.COLUMNS + " FROM transactions " +
+                    "WHERE status = ? ORDER BY fees DESC, created_at ASC";
         return executeQuery(sql, TransactionStatus.PENDING.name());
     }
 
+    /**
+     * Streams pending transactions in priority order without materializing the list
+     * @return Number of transactions visited
+     */
+    public long forEachPendingOrderedByFees(Consumer<? super Transaction> action) throws SQLException {
+        String sql = "SELECT " + TransactionRepository.COLUMNS + " FROM transactions " +
+                    "WHERE status = ? ORDER BY fees DESC, created_at ASC";
+        return forEach(sql, action, TransactionStatus.PENDING.name());
+    }
+
     public int countPendingTransactions() throws SQLException {
         return countWhere("status = ?", TransactionStatus.PENDING.name());
     }
 
-     public double[] getMempoolStats() throws SQLException {
-        String sql = "SELECT MIN(fees) as min_fees, MAX(fees) as max_fees, AVG(fees) as avg_fees " +
-                    "FROM transactions WHERE status = ?";
+    /**
+     * Mempool statistics { min, max, avg } of pending fees
+     * The average comes from the pending rows of the trigger-maintained transaction_stats
+     * table, min/max from the ends of the partial pending-fees index: no scan of transactions.
+     */
+    public double[] getMempoolStats() throws SQLException {
+        String sql = "SELECT " +
+                    "  (SELECT MIN(fees) FROM transactions WHERE status = ?) AS min_fees, " +
+                    "  (SELECT MAX(fees) FROM transactions WHERE status = ?) AS max_fees, " +
+                    "  (SELECT SUM(total_fees) / NULLIF(SUM(tx_count), 0) FROM transaction_stats WHERE status = ?) AS avg_fees";
         
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, TransactionStatus.PENDING.name());
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return new double[] {
-                    rs.getDouble("min_fees"),
-                    rs.getDouble("max_fees"),
-                    rs.getDouble("avg_fees")
-                };
+            stmt.setString(2, TransactionStatus.PENDING.name());
+            stmt.setString(3, TransactionStatus.PENDING.name());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new double[] {
+                        rs.getDouble("min_fees"),
+                        rs.getDouble("max_fees"),
+                        rs.getDouble("avg_fees")
+                    };
+                }
             }
             
             return new double[] { 0.0, 0.0, 0.0 };
@@ -68,50 +85,11 @@ public class MempoolRepository extends BaseRepository<Transaction> {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, TransactionStatus.PENDING.name());
-            stmt.setString(2, transactionId);
-            ResultSet rs = stmt.executeQuery();
-            
-            return rs.next() ? rs.getInt("position") : -1;
-        }
-    }
-
-     public List<String> confirmTopTransactions(int count) throws SQLException {
-        String selectSql = "SELECT id FROM transactions WHERE status = ? " +
-                          "ORDER BY fees DESC, created_at ASC LIMIT ?";
-        String updateSql = "UPDATE transactions SET status = ? WHERE id = ?";
-        
-        List<String> confirmedIds = new ArrayList<>();
-        
-        try (Connection conn = getConnection()) {
-            conn.setAutoCommit(false);
-            
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectSql);
-                 PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
-                
-                selectStmt.setString(1, TransactionStatus.PENDING.name());
-                selectStmt.setInt(2, count);
-                ResultSet rs = selectStmt.executeQuery();
-                
-                while (rs.next()) {
-                    String txId = rs.getString("id");
-                    updateStmt.setString(1, TransactionStatus.CONFIRMED.name());
-                    updateStmt.setString(2, txId);
-                    updateStmt.executeUpdate();
-                    confirmedIds.add(txId);
-                }
-                
-                conn.commit();
-                LoggerUtil.logInfo("Confirmed " + confirmedIds.size() + " transactions");
-                
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            } finally {
-                conn.setAutoCommit(true);
+            stmt.setObject(2, UUIDGenerator.toUuid(transactionId));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("position") : -1;
             }
         }
-        
-        return confirmedIds;
     }
     
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package repository;
+
+import model.Transaction;
+import enums.CryptoType;
+import enums.FeeLevel;
+import enums.TransactionStatus;
+import util.LoggerUtil;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Binary snapshot of the pending mempool
+ * Transactions are written in priority order so that a restart reloads
+ * the pool in one sequential pass, without going through the database.
+ * The file is read and written through a FileChannel in a single buffer rather than
+ * mapped: a mapping stays open until the GC unmaps it, which blocks the rename and
+ * the delete on Windows. A snapshot is valid for one restore only, see delete().
+ *
+ * Layout: magic, version, written-at (epoch millis), count, then per entry:
+ * id, from, to (length-prefixed UTF-8), amount, fees, type, fee level,
+ * created-at (epoch second + nanos, UTC).
+ */
+public class MempoolSnapshotStore {
+
+    private static final int MAGIC = 0x4D504F4C; // "MPOL"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int FIXED_ENTRY_BYTES = 3 * 2 + 8 + 8 + 1 + 1 + 8 + 4;
+
+    private final Path path;
+
+    public MempoolSnapshotStore(String path) {
+        this.path = Paths.get(path);
+    }
+
+    /**
+     * Writes the snapshot atomically (temporary file, then rename)
+     * @param transactions Pending transactions in priority order
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Collection<Transaction> transactions) throws IOException {
+        List<byte[][]> encoded = new ArrayList<>(transactions.size());
+        long size = HEADER_BYTES;
+        for (Transaction tx : transactions) {
+            byte[][] strings = {
+                tx.getId().getBytes(StandardCharsets.UTF_8),
+                tx.getFromAddress().getBytes(StandardCharsets.UTF_8),
+                tx.getToAddress().getBytes(StandardCharsets.UTF_8)
+            };
+            encoded.add(strings);
+            size += FIXED_ENTRY_BYTES + strings[0].length + strings[1].length + strings[2].length;
+        }
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Mempool snapshot too large: " + size + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putInt(transactions.size());
+
+        int i = 0;
+        for (Transaction tx : transactions) {
+            for (byte[] bytes : encoded.get(i++)) {
+                buffer.putShort((short) bytes.length);
+                buffer.put(bytes);
+            }
+            buffer.putDouble(tx.getAmount());
+            buffer.putDouble(tx.getFees());
+            buffer.put((byte) tx.getType().ordinal());
+            buffer.put((byte) tx.getFeeLevel().ordinal());
+            buffer.putLong(tx.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(tx.getCreatedAt().getNano());
+        }
+        buffer.flip();
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        // The channel is closed and nothing maps the file: the rename cannot be blocked
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        LoggerUtil.logInfo(String.format("Mempool snapshot written: %d transactions, %d bytes -> %s",
+            transactions.size(), size, path));
+    }
+
+    /**
+     * Loads the snapshot if it exists and is recent enough
+     * @param maxAge Snapshots older than this are considered stale
+     * @return The pending transactions in priority order, or empty if missing, stale or unreadable
+     */
+    public Optional<List<Transaction>> load(Duration maxAge) {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                LoggerUtil.logWarning("Mempool snapshot too large to load: " + path);
+                return Optional.empty();
+            }
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+        } catch (IOException e) {
+            LoggerUtil.logError("Error reading mempool snapshot: " + path, e);
+            return Optional.empty();
+        }
+
+        try {
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                LoggerUtil.logWarning("Mempool snapshot has an unknown format: " + path);
+                return Optional.empty();
+            }
+
+            long age = System.currentTimeMillis() - buffer.getLong();
+            if (age > maxAge.toMillis()) {
+                LoggerUtil.logInfo(String.format("Mempool snapshot is stale (%d s old)", age / 1000));
+                return Optional.empty();
+            }
+
+            int count = buffer.getInt();
+            List<Transaction> transactions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String id = readString(buffer);
+                String from = readString(buffer);
+                String to = readString(buffer);
+                double amount = buffer.getDouble();
+                double fees = buffer.getDouble();
+                CryptoType type = CryptoType.values()[buffer.get()];
+                FeeLevel feeLevel = FeeLevel.values()[buffer.get()];
+                LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+
+                transactions.add(new Transaction(id, from, to, amount, type, feeLevel, fees,
+                    TransactionStatus.PENDING, createdAt));
+            }
+
+            LoggerUtil.logInfo(String.format("Mempool snapshot loaded: %d transactions", count));
+            return Optional.of(transactions);
+
+        } catch (RuntimeException e) {
+            LoggerUtil.logError("Error decoding mempool snapshot: " + path, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Deletes the snapshot once it has been restored
+     * Transactions confirmed or expired after the restore are only recorded in the database:
+     * loading the same snapshot on the next start would bring them back as pending.
+     */
+    public void delete() throws IOException {
+        if (Files.deleteIfExists(path)) {
+            LoggerUtil.logInfo("Mempool snapshot consumed: " + path);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,30 @@
+package repository;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query
+ * @param <T> The entity type
+ */
+public class Page<T> {
+
+    private final List<T> items;
+    private final PageCursor nextCursor;
+
+    public Page(List<T> items, PageCursor nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+    public int size() { return items.size(); }
+    public boolean isEmpty() { return items.isEmpty(); }
+
+    /**
+     * @return Cursor to pass for the following page, or null on the last page
+     */
+    public PageCursor getNextCursor() { return nextCursor; }
+
+    public boolean hasNext() { return nextCursor != null; }
+}
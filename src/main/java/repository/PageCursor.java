@@ -0,0 +1,49 @@
+package repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position of the last row of a page
+ * The next page seeks past it instead of skipping rows with OFFSET,
+ * so every page costs the same whatever its depth.
+ */
+public class PageCursor {
+
+    // Scale of the DECIMAL fee columns, so the bound value matches the stored one exactly
+    private static final int FEE_SCALE = 8;
+
+    private final BigDecimal fees;
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    private PageCursor(BigDecimal fees, LocalDateTime createdAt, String id) {
+        this.fees = fees;
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * Cursor for (created_at, id) ordering
+     */
+    public static PageCursor byCreation(LocalDateTime createdAt, String id) {
+        return new PageCursor(null, createdAt, id);
+    }
+
+    /**
+     * Cursor for (fees, created_at, id) ordering
+     */
+    public static PageCursor byFees(double fees, LocalDateTime createdAt, String id) {
+        return new PageCursor(BigDecimal.valueOf(fees).setScale(FEE_SCALE, RoundingMode.HALF_UP), createdAt, id);
+    }
+
+    public BigDecimal getFees() { return fees; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public String getId() { return id; }
+
+    @Override
+    public String toString() {
+        return (fees != null ? fees + " / " : "") + createdAt + " / " + id;
+    }
+}
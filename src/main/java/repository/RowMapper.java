@@ -0,0 +1,16 @@
+package repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a ResultSet to an object
+ * Mappers read columns by position, so the query must select the columns
+ * in the order the mapper expects.
+ * @param <R> The mapped type
+ */
+@FunctionalInterface
+public interface RowMapper<R> {
+
+    R map(ResultSet rs) throws SQLException;
+}
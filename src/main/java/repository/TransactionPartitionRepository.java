@@ -0,0 +1,150 @@
+package repository;
+
+import util.DatabaseConnection;
+import util.LoggerUtil;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DDL on the monthly partitions of transactions
+ * Partitions are named transactions_YYYYMM and cover one calendar month
+ * of created_at. Archiving detaches a partition and moves it to transactions_archive,
+ * where it stays queryable but is no longer scanned by queries on transactions.
+ */
+public class TransactionPartitionRepository {
+
+    private static final String PARENT = "transactions";
+    private static final String ARCHIVE_SCHEMA = "transactions_archive";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final DatabaseConnection dbConnection;
+
+    public TransactionPartitionRepository() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    public static String partitionName(YearMonth month) {
+        return PARENT + "_" + month.format(SUFFIX);
+    }
+
+    /**
+     * Months that currently have an attached partition, oldest first
+     */
+    public List<YearMonth> findPartitions() throws SQLException {
+        String sql = "SELECT c.relname FROM pg_inherits i " +
+                    "JOIN pg_class c ON c.oid = i.inhrelid " +
+                    "WHERE i.inhparent = ?::regclass ORDER BY c.relname";
+        List<YearMonth> months = new ArrayList<>();
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, PARENT);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String suffix = rs.getString(1).substring(PARENT.length() + 1);
+                    // Skips the default partition
+                    if (suffix.matches("\\d{6}")) {
+                        months.add(YearMonth.parse(suffix, SUFFIX));
+                    }
+                }
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Creates the partition of a month if it does not exist
+     * @return true if it was created
+     */
+    public boolean createPartition(YearMonth month) throws SQLException {
+        String name = partitionName(month);
+        String sql = String.format(
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+            name, PARENT, month.atDay(1), month.plusMonths(1).atDay(1));
+
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            boolean existed = exists(conn, name);
+            stmt.execute(sql);
+            if (!existed) {
+                LoggerUtil.logInfo("Created partition " + name);
+            }
+            return !existed;
+
+        } catch (SQLException e) {
+            LoggerUtil.logError("Error creating partition " + name, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Detaches the partition of a month and moves it to the archive schema
+     * Both steps run in one transaction: the rows are either still attached or archived.
+     */
+    public void archivePartition(YearMonth month) throws SQLException {
+        String name = partitionName(month);
+
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            conn.setAutoCommit(false);
+            try {
+                stmt.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + name);
+                stmt.execute("ALTER TABLE " + name + " SET SCHEMA " + ARCHIVE_SCHEMA);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            LoggerUtil.logInfo("Archived partition " + name + " to " + ARCHIVE_SCHEMA);
+
+        } catch (SQLException e) {
+            LoggerUtil.logError("Error archiving partition " + name, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Number of pending transactions in the partition of a month
+     * A partition still holding some must not be archived: they would leave the mempool.
+     */
+    public long countPending(YearMonth month) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM " + partitionName(month) + " WHERE status = 'PENDING'";
+
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Number of rows that fell into the default partition
+     * Should stay at 0: such rows block the creation of the partition of their month.
+     */
+    public long countDefaultPartitionRows() throws SQLException {
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + PARENT + "_default")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static boolean exists(Connection conn, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
@@ -1,84 +1,241 @@
 package repository ;
 
 import model.Transaction;
+import model.TransactionStats;
 import enums.*;
 import util.LoggerUtil;
+import util.UUIDGenerator;
 import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public class TransactionRepository extends BaseRepository<Transaction>{
 
+    /** Column list shared by every query, in the order ROW_MAPPER reads it */
+    static final String COLUMNS = "id, from_address, to_address, amount, fees, " +
+                                  "crypto_type, fee_level, status, created_at";
+    private static final String INSERT_SQL = "INSERT INTO transactions (" + COLUMNS + ") " +
+                                             "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_IF_ABSENT_SQL = INSERT_SQL + " ON CONFLICT (id, created_at) DO NOTHING";
+    // created_at is the partition key: with it the row is looked up in its monthly partition only
+    private static final String UPDATE_STATUS_SQL =
+        "UPDATE transactions SET status = ? WHERE id = ? AND created_at = ? AND status = ?";
+    private static final String COPY_SQL = "COPY transactions (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
     @Override
     public String getTableName(){
         return "transactions";
     }
 
+    /**
+     * Maps a row selected with COLUMNS, reading columns by position
+     */
+    static final RowMapper<Transaction> ROW_MAPPER = rs -> new Transaction(
+        rs.getString(1),                                // id
+        rs.getString(2),                                // from_address
+        rs.getString(3),                                // to_address
+        rs.getDouble(4),                                // amount
+        CryptoType.valueOf(rs.getString(6)),            // crypto_type
+        FeeLevel.valueOf(rs.getString(7)),              // fee_level
+        rs.getDouble(5),                                // fees
+        TransactionStatus.valueOf(rs.getString(8)),     // status
+        rs.getTimestamp(9).toLocalDateTime()            // created_at
+    );
+
     @Override
     protected Transaction mapResultSetToEntity(ResultSet rs) throws SQLException {
-        String fromAddress = rs.getString("from_address");
-        String toAddress = rs.getString("to_address");
-        double amount = rs.getDouble("amount");
-        CryptoType type = CryptoType.valueOf(rs.getString("crypto_type"));
-        FeeLevel feeLevel = FeeLevel.valueOf(rs.getString("fee_level"));
-        
-        Transaction transaction = new Transaction(fromAddress, toAddress, amount, type, feeLevel);
-        transaction.setFees(rs.getDouble("fees"));
-        transaction.setStatus(TransactionStatus.valueOf(rs.getString("status")));
-        
-        return transaction;
+        return ROW_MAPPER.map(rs);
     }
 
-    public void save(Transaction tx) throws SQLException {
-        String sql = "INSERT INTO transactions (id, from_address, to_address, amount, fees, " +
-                    "crypto_type, fee_level, status, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        int rows = executeUpdate(sql,
-            tx.getId(), tx.getFromAddress(), tx.getToAddress(), tx.getAmount(),
+    private Object[] toRow(Transaction tx) {
+        return new Object[] {
+            UUIDGenerator.toUuid(tx.getId()), tx.getFromAddress(), tx.getToAddress(), tx.getAmount(),
             tx.getFees(), tx.getType().name(), tx.getFeeLevel().name(),
             tx.getStatus().name(), Timestamp.valueOf(tx.getCreatedAt())
-        );
+        };
+    }
+
+    public void save(Transaction tx) throws SQLException {
+        int rows = executeUpdate(INSERT_SQL, toRow(tx));
         
         if (rows > 0) {
             LoggerUtil.logTransaction(tx.getId(), "SAVED_TO_DB", "Success");
         }
     }
 
+    /**
+     * Idempotent insert: does nothing if the transaction is already stored
+     * (used to retry rows of a bulk insert that may have been committed)
+     * @return true if the row was inserted
+     */
+    public boolean saveIfAbsent(Transaction tx) throws SQLException {
+        return executeUpdate(INSERT_IF_ABSENT_SQL, toRow(tx)) > 0;
+    }
+
+    /**
+     * Bulk insert, one commit per DB_BATCH_SIZE rows (COPY when DB_BULK_USE_COPY=true)
+     * @param transactions The transactions to insert
+     * @return Row count and per-batch timings
+     */
+    public BatchResult saveAll(Collection<Transaction> transactions) throws SQLException {
+        return USE_COPY
+            ? executeCopy(COPY_SQL, transactions, this::toRow)
+            : executeBatch(INSERT_SQL, transactions, this::toRow);
+    }
+
     public Optional<Transaction> findById(String id) throws SQLException {
-        String sql = "SELECT * FROM transactions WHERE id = ?";
-        return executeSingleQuery(sql, id);
+        String sql = "SELECT " + COLUMNS + " FROM transactions WHERE id = ?";
+        return executeSingleQuery(sql, UUIDGenerator.toUuid(id));
     }
 
      public List<Transaction> findAll() throws SQLException {
-        String sql = "SELECT * FROM transactions ORDER BY created_at DESC";
+        String sql = "SELECT " + COLUMNS + " FROM transactions ORDER BY created_at DESC";
         return executeQuery(sql);
     }
 
+    /**
+     * One page of all transactions, newest first (keyset on created_at, id)
+     * @param after Cursor returned with the previous page, or null for the first page
+     */
+    public Page<Transaction> findPage(PageCursor after, int pageSize) throws SQLException {
+        if (after == null) {
+            String sql = "SELECT " + COLUMNS + " FROM transactions ORDER BY created_at DESC, id DESC LIMIT ?";
+            return executePageQuery(sql, pageSize, TransactionRepository::creationCursor);
+        }
+        String sql = "SELECT " + COLUMNS + " FROM transactions WHERE (created_at, id) < (?, ?) " +
+                    "ORDER BY created_at DESC, id DESC LIMIT ?";
+        return executePageQuery(sql, pageSize, TransactionRepository::creationCursor,
+            Timestamp.valueOf(after.getCreatedAt()), UUIDGenerator.toUuid(after.getId()));
+    }
+
+    /**
+     * One page of one chain's transactions, newest first
+     */
+    public Page<Transaction> findPageByType(CryptoType type, PageCursor after, int pageSize) throws SQLException {
+        if (after == null) {
+            String sql = "SELECT " + COLUMNS + " FROM transactions WHERE crypto_type = ? " +
+                        "ORDER BY created_at DESC, id DESC LIMIT ?";
+            return executePageQuery(sql, pageSize, TransactionRepository::creationCursor, type.name());
+        }
+        String sql = "SELECT " + COLUMNS + " FROM transactions WHERE crypto_type = ? AND (created_at, id) < (?, ?) " +
+                    "ORDER BY created_at DESC, id DESC LIMIT ?";
+        return executePageQuery(sql, pageSize, TransactionRepository::creationCursor,
+            type.name(), Timestamp.valueOf(after.getCreatedAt()), UUIDGenerator.toUuid(after.getId()));
+    }
+
+    /**
+     * One page of transactions with a given status, highest fees first (mempool order)
+     * Fees descend while created_at and id ascend, so the seek is spelled out instead of a row comparison.
+     */
+    public Page<Transaction> findPageByStatus(TransactionStatus status, PageCursor after, int pageSize)
+            throws SQLException {
+        if (after == null) {
+            String sql = "SELECT " + COLUMNS + " FROM transactions WHERE status = ? " +
+                        "ORDER BY fees DESC, created_at ASC, id ASC LIMIT ?";
+            return executePageQuery(sql, pageSize, TransactionRepository::feeCursor, status.name());
+        }
+        String sql = "SELECT " + COLUMNS + " FROM transactions WHERE status = ? AND fees <= ? " +
+                    "AND (fees < ? OR created_at > ? OR (created_at = ? AND id > ?)) " +
+                    "ORDER BY fees DESC, created_at ASC, id ASC LIMIT ?";
+        Timestamp createdAt = Timestamp.valueOf(after.getCreatedAt());
+        return executePageQuery(sql, pageSize, TransactionRepository::feeCursor,
+            status.name(), after.getFees(), after.getFees(), createdAt, createdAt, UUIDGenerator.toUuid(after.getId()));
+    }
+
+    private static PageCursor creationCursor(Transaction tx) {
+        return PageCursor.byCreation(tx.getCreatedAt(), tx.getId());
+    }
+
+    private static PageCursor feeCursor(Transaction tx) {
+        return PageCursor.byFees(tx.getFees(), tx.getCreatedAt(), tx.getId());
+    }
+
     public List<Transaction> findByStatus(TransactionStatus status) throws SQLException {
-        String sql = "SELECT * FROM transactions WHERE status = ? ORDER BY fees DESC";
+        String sql = "SELECT " + COLUMNS + " FROM transactions WHERE status = ? ORDER BY fees DESC";
         return executeQuery(sql, status.name());
     }
 
       public List<Transaction> findByType(CryptoType type) throws SQLException {
-        String sql = "SELECT * FROM transactions WHERE crypto_type = ? ORDER BY created_at DESC";
+        String sql = "SELECT " + COLUMNS + " FROM transactions WHERE crypto_type = ? ORDER BY created_at DESC";
         return executeQuery(sql, type.name());
     }
 
     public List<Transaction> findPendingOrderedByFees() throws SQLException {
-        String sql = "SELECT * FROM v_mempool";
+        String sql = "SELECT " + COLUMNS + " FROM v_mempool";
         return executeQuery(sql);
     }
 
-     public void updateStatus(String id, TransactionStatus newStatus) throws SQLException {
-        String sql = "UPDATE transactions SET status = ? WHERE id = ?";
-        int rows = executeUpdate(sql, newStatus.name(), id);
+    /**
+     * Writes the current status of a pending transaction
+     * Only pending rows can change status; a transaction already settled is left untouched.
+     */
+     public void updateStatus(Transaction tx) throws SQLException {
+        TransactionStatus newStatus = tx.getStatus();
+        int rows = executeUpdate(UPDATE_STATUS_SQL, toStatusRow(tx, newStatus));
+        
+        if (rows > 0) {
+            LoggerUtil.logTransaction(tx.getId(), "STATUS_UPDATED", newStatus.name());
+        }
+    }
+
+    /**
+     * Bulk status update of the current status of each transaction, one commit per DB_BATCH_SIZE rows
+     * @return Row count and per-batch timings
+     */
+    public BatchResult updateStatuses(Collection<Transaction> transactions) throws SQLException {
+        return executeBatch(UPDATE_STATUS_SQL, transactions, (Transaction tx) -> toStatusRow(tx, tx.getStatus()));
+    }
+
+    private Object[] toStatusRow(Transaction tx, TransactionStatus newStatus) {
+        return new Object[] {
+            newStatus.name(), UUIDGenerator.toUuid(tx.getId()), Timestamp.valueOf(tx.getCreatedAt()),
+            TransactionStatus.PENDING.name()
+        };
+    }
+
+    /**
+     * Expires one batch of stale pending transactions (oldest first)
+     * Uses the partial index on pending created_at; SKIP LOCKED lets it run beside confirmers.
+     * @param cutoff Transactions created before this time are rejected
+     * @param batchSize Maximum number of rows to update
+     * @return Number of transactions expired
+     */
+    public int expirePendingOlderThan(LocalDateTime cutoff, int batchSize) throws SQLException {
+        // The outer created_at bound prunes the partitions newer than the cutoff from the update too
+        String sql = "UPDATE transactions SET status = ? " +
+                    "WHERE status = ? AND created_at < ? AND (id, created_at) IN (" +
+                    "  SELECT id, created_at FROM transactions WHERE status = ? AND created_at < ? " +
+                    "  ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED)";
+        Timestamp before = Timestamp.valueOf(cutoff);
+        int rows = executeUpdate(sql, TransactionStatus.REJECTED.name(), TransactionStatus.PENDING.name(), before,
+            TransactionStatus.PENDING.name(), before, batchSize);
         
         if (rows > 0) {
-            LoggerUtil.logTransaction(id, "STATUS_UPDATED", newStatus.name());
+            LoggerUtil.logInfo("Expired " + rows + " pending transactions in database");
         }
+        return rows;
     }
 
-    public int countByStatus(TransactionStatus status) throws SQLException {
-        return countWhere("status = ?", status.name());
+    /**
+     * Aggregates per crypto type and status, read from the trigger-maintained transaction_stats table
+     * A fixed number of slot rows per (type, status): constant cost whatever the size of transactions.
+     */
+    public TransactionStats getStats() throws SQLException {
+        String sql = "SELECT crypto_type, status, SUM(tx_count), SUM(total_amount), SUM(total_fees) " +
+                    "FROM transaction_stats GROUP BY crypto_type, status";
+        TransactionStats stats = new TransactionStats();
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                stats.addAggregate(CryptoType.valueOf(rs.getString(1)), TransactionStatus.valueOf(rs.getString(2)),
+                    rs.getLong(3), rs.getDouble(4), rs.getDouble(5));
+            }
+        }
+        return stats;
     }
 }
\ No newline at end of file
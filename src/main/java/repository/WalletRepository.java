@@ -3,13 +3,22 @@ package repository;
 import model.*;
 import enums.CryptoType;
 import util.LoggerUtil;
+import util.UUIDGenerator;
 import java.sql.*;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.time.LocalDateTime;
 
 public class WalletRepository extends BaseRepository<Wallet> {
 
+    // column list shared by every query, in the order mapResultSetToEntity reads it
+    private static final String COLUMNS = "id, address, crypto_type, balance, created_at";
+    private static final String INSERT_SQL = "INSERT INTO wallets (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_IF_ABSENT_SQL = INSERT_SQL + " ON CONFLICT (id) DO NOTHING";
+    private static final String COPY_SQL = "COPY wallets (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
     @Override
     public String getTableName(){
         return "Wallets";
@@ -34,13 +43,11 @@ public class WalletRepository extends BaseRepository<Wallet> {
 
     @Override
     protected Wallet mapResultSetToEntity(ResultSet rs) throws SQLException {
-        String id = rs.getString("id");
-        String address = rs.getString("address");
-        String cryptoTypeStr = rs.getString("crypto_type");
-        double balance = rs.getDouble("balance");
-        LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
-
-        CryptoType cryptoType = CryptoType.valueOf(cryptoTypeStr.toUpperCase());
+        String id = rs.getString(1);
+        String address = rs.getString(2);
+        CryptoType cryptoType = CryptoType.valueOf(rs.getString(3).toUpperCase());
+        double balance = rs.getDouble(4);
+        LocalDateTime createdAt = rs.getTimestamp(5).toLocalDateTime();
 
         return (cryptoType == CryptoType.BITCOIN)
             ? new BitcoinWallet(id, address, balance, createdAt)
@@ -48,55 +55,86 @@ public class WalletRepository extends BaseRepository<Wallet> {
     }
 
 
-    public void save(Wallet wallet) throws SQLException {
-        String sql = "INSERT INTO wallets (id, address, crypto_type, balance, created_at) " +
-                    "VALUES (?, ?, ?, ?, ?)";
-
-        int rows = executeUpdate(sql,
-            wallet.getId(),
+    private Object[] toRow(Wallet wallet) {
+        return new Object[] {
+            UUIDGenerator.toUuid(wallet.getId()),
             wallet.getAddress(),
             wallet.getType().name(),
             wallet.getBalance(),
             Timestamp.valueOf(wallet.getCreatedAt())
-        );
+        };
+    }
+
+    public void save(Wallet wallet) throws SQLException {
+        int rows = executeUpdate(INSERT_SQL, toRow(wallet));
 
         if (rows > 0){
-            LoggerUtil.logInfo("wallet saved : " + wallet.getId().substring(0,8));
+            LoggerUtil.logInfo("wallet saved : " + UUIDGenerator.shortId(wallet.getId()));
         }
     }
 
+    // idempotent insert: does nothing if the wallet is already stored, true if inserted
+    public boolean saveIfAbsent(Wallet wallet) throws SQLException {
+        return executeUpdate(INSERT_IF_ABSENT_SQL, toRow(wallet)) > 0;
+    }
+
+    // bulk insert, one commit per DB_BATCH_SIZE rows (COPY when DB_BULK_USE_COPY=true)
+    public BatchResult saveAll(Collection<Wallet> wallets) throws SQLException {
+        return USE_COPY
+            ? executeCopy(COPY_SQL, wallets, this::toRow)
+            : executeBatch(INSERT_SQL, wallets, this::toRow);
+    }
+
     // find by id
     public Optional<Wallet> findById(String id)throws SQLException {
-        String sql = "SELECT * FROM wallets where id = ?";
-        return executeSingleQuery(sql, id);
+        String sql = "SELECT " + COLUMNS + " FROM wallets where id = ?";
+        return executeSingleQuery(sql, UUIDGenerator.toUuid(id));
     }
 
     // find wallet bu address
     public Optional<Wallet> findByAddress(String address) throws SQLException{
-        String sql = "SELECT * FROM wallets WHERE address = ?";
+        String sql = "SELECT " + COLUMNS + " FROM wallets WHERE address = ?";
         return executeSingleQuery(sql, address);
     }
 
     // find all wallets 
    public List<Wallet> findAll() throws SQLException {
-        String sql = "SELECT * FROM wallets ORDER BY created_at DESC";
+        String sql = "SELECT " + COLUMNS + " FROM wallets ORDER BY created_at DESC";
         return executeQuery(sql);
     }
 
+    // one page of wallets, newest first (keyset on created_at, id)
+    public Page<Wallet> findPage(PageCursor after, int pageSize) throws SQLException {
+        if (after == null) {
+            String sql = "SELECT " + COLUMNS + " FROM wallets ORDER BY created_at DESC, id DESC LIMIT ?";
+            return executePageQuery(sql, pageSize, w -> PageCursor.byCreation(w.getCreatedAt(), w.getId()));
+        }
+        String sql = "SELECT " + COLUMNS + " FROM wallets WHERE (created_at, id) < (?, ?) " +
+                    "ORDER BY created_at DESC, id DESC LIMIT ?";
+        return executePageQuery(sql, pageSize, w -> PageCursor.byCreation(w.getCreatedAt(), w.getId()),
+            Timestamp.valueOf(after.getCreatedAt()), UUIDGenerator.toUuid(after.getId()));
+    }
+
     // find wallets by type
      public List<Wallet> findByType(CryptoType type) throws SQLException {
-        String sql = "SELECT * FROM wallets WHERE crypto_type = ? ORDER BY created_at DESC";
+        String sql = "SELECT " + COLUMNS + " FROM wallets WHERE crypto_type = ? ORDER BY created_at DESC";
         return executeQuery(sql, type.name());
     }
 
     // update balance 
       public void updateBalance(String id, double newBalance) throws SQLException {
         String sql = "UPDATE wallets SET balance = ? WHERE id = ?";
-        int rows = executeUpdate(sql, newBalance, id);
+        int rows = executeUpdate(sql, newBalance, UUIDGenerator.toUuid(id));
         
         if (rows > 0) {
-            LoggerUtil.logInfo("Balance updated for: " + id.substring(0, 8));
+            LoggerUtil.logInfo("Balance updated for: " + UUIDGenerator.shortId(id));
         }
     }
+
+    // bulk balance update, one commit per DB_BATCH_SIZE rows
+    public BatchResult updateBalances(Map<String, Double> balances) throws SQLException {
+        String sql = "UPDATE wallets SET balance = ? WHERE id = ?";
+        return executeBatch(sql, balances.entrySet(),
+            (Map.Entry<String, Double> e) -> new Object[] { e.getValue(), UUIDGenerator.toUuid(e.getKey()) });
+    }
 }
- 
\ No newline at end of file
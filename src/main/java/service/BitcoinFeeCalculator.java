@@ -14,6 +14,7 @@ public class BitcoinFeeCalculator implements FeeCalculator {
     private static final int AVERAGE_TX_SIZE_BYTES = 250;  
     private static final double SATOSHI_PER_BYTE_BASE = 20.0;  
     private static final double SATOSHI_TO_BTC = 0.00000001;  
+    private static final long MAX_BLOCK_SIZE_BYTES = 1_000_000;
     
     @Override
     public double calculateFees(Transaction transaction) {
@@ -43,6 +44,16 @@ public class BitcoinFeeCalculator implements FeeCalculator {
         return "BitcoinFeeCalculator";
     }
     
+    @Override
+    public long getTransactionWeight(Transaction transaction) {
+        return AVERAGE_TX_SIZE_BYTES;
+    }
+    
+    @Override
+    public long getBlockCapacity() {
+        return MAX_BLOCK_SIZE_BYTES;
+    }
+    
     /**
      * Bitcoin-specific method to calculate fee for a custom transaction size
      */
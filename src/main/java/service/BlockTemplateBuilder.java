@@ -0,0 +1,45 @@
+package service;
+
+import model.BlockTemplate;
+import model.Mempool;
+import enums.CryptoType;
+import util.LoggerUtil;
+
+/**
+ * Assembles a block up to its byte (Bitcoin) or gas (Ethereum) budget
+ * Greedy selection: the mempool is walked in priority order and every
+ * transaction that still fits is taken, without copying the pool.
+ */
+public class BlockTemplateBuilder {
+
+    // Stop scanning once this many candidates in a row did not fit: the block is effectively full
+    private static final int MAX_CONSECUTIVE_MISSES = 1000;
+
+    /**
+     * Build a block template for one crypto type
+     * @param mempool The pool to select from
+     * @param type The chain the block belongs to
+     * @param calculator Fee calculator providing weights and block capacity
+     * @return The selected transactions (still in the mempool)
+     */
+    public BlockTemplate build(Mempool mempool, CryptoType type, FeeCalculator calculator) {
+        BlockTemplate block = new BlockTemplate(type, calculator.getBlockCapacity());
+        int[] misses = {0};
+
+        // Every transaction of a type has the same weight, so fee order is also fee-rate order
+        mempool.forEachByFees(tx -> {
+            if (tx.getType() != type) {
+                return true;
+            }
+            if (block.tryAdd(tx, calculator.getTransactionWeight(tx))) {
+                misses[0] = 0;
+            } else {
+                misses[0]++;
+            }
+            return block.getRemainingCapacity() > 0 && misses[0] < MAX_CONSECUTIVE_MISSES;
+        });
+
+        LoggerUtil.logInfo("Block template built: " + block);
+        return block;
+    }
+}
@@ -14,6 +14,7 @@ public class EthereumFeeCalculator implements FeeCalculator {
     private static final long GAS_LIMIT = 21000;       
     private static final double GWEI_TO_ETH = 0.000000001;
     private static final double BASE_GAS_PRICE_GWEI = 30.0; 
+    private static final long BLOCK_GAS_LIMIT = 30_000_000;
     
     @Override
     public double calculateFees(Transaction transaction) {
@@ -43,6 +44,16 @@ public class EthereumFeeCalculator implements FeeCalculator {
         return "EthereumFeeCalculator";
     }
     
+    @Override
+    public long getTransactionWeight(Transaction transaction) {
+        return GAS_LIMIT;
+    }
+    
+    @Override
+    public long getBlockCapacity() {
+        return BLOCK_GAS_LIMIT;
+    }
+    
     /**
      * Ethereum-specific method to calculate fee with custom gas limit
      */
@@ -34,4 +34,18 @@ public interface FeeCalculator {
      * @return Calculator name
      */
     String getCalculatorName();
+    
+    /**
+     * Get the block space consumed by a transaction
+     * (bytes for Bitcoin, gas for Ethereum)
+     * @param transaction The transaction to measure
+     * @return Weight in block capacity units
+     */
+    long getTransactionWeight(Transaction transaction);
+    
+    /**
+     * Get the capacity of one block, in the same unit as getTransactionWeight
+     * @return Block capacity
+     */
+    long getBlockCapacity();
 }
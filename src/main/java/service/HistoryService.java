@@ -0,0 +1,57 @@
+package service;
+
+import model.Transaction;
+import model.Wallet;
+import enums.CryptoType;
+import enums.TransactionStatus;
+import repository.TransactionRepository;
+import repository.WalletRepository;
+
+/**
+ * Paged browsing of the persisted transaction and wallet history
+ */
+public class HistoryService {
+
+    private final TransactionRepository transactionRepository;
+    private final WalletRepository walletRepository;
+    private final int pageSize;
+
+    public HistoryService(TransactionRepository transactionRepository, WalletRepository walletRepository,
+                          int pageSize) {
+        this.transactionRepository = transactionRepository;
+        this.walletRepository = walletRepository;
+        this.pageSize = pageSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * All transactions, newest first
+     */
+    public PageIterator<Transaction> transactions() {
+        return new PageIterator<>(after -> transactionRepository.findPage(after, pageSize));
+    }
+
+    /**
+     * Transactions of one chain, newest first
+     */
+    public PageIterator<Transaction> transactionsByType(CryptoType type) {
+        return new PageIterator<>(after -> transactionRepository.findPageByType(type, after, pageSize));
+    }
+
+    /**
+     * Transactions with a given status, highest fees first
+     */
+    public PageIterator<Transaction> transactionsByStatus(TransactionStatus status) {
+        return new PageIterator<>(after -> transactionRepository.findPageByStatus(status, after, pageSize));
+    }
+
+    /**
+     * All wallets, newest first
+     */
+    public PageIterator<Wallet> wallets() {
+        return new PageIterator<>(after -> walletRepository.findPage(after, pageSize));
+    }
+}
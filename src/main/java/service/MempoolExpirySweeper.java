@@ -0,0 +1,117 @@
+package service;
+
+import model.Transaction;
+import repository.TransactionRepository;
+import util.LoggerUtil;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job expiring pending transactions older than a TTL
+ * Works in batches, both in the in-memory mempool and in the database,
+ * and keeps counters of what it expired.
+ */
+public class MempoolExpirySweeper {
+
+    private final MempoolService mempoolService;
+    private final TransactionRepository transactionRepository;
+    private final Duration ttl;
+    private final Duration interval;
+    private final int batchSize;
+    private ScheduledExecutorService scheduler;
+
+    // Metrics
+    private final AtomicLong sweeps = new AtomicLong();
+    private final AtomicLong expiredInMemory = new AtomicLong();
+    private final AtomicLong expiredInDatabase = new AtomicLong();
+    private final AtomicLong databaseErrors = new AtomicLong();
+
+    public MempoolExpirySweeper(MempoolService mempoolService, TransactionRepository transactionRepository,
+                                Duration ttl, Duration interval, int batchSize) {
+        this.mempoolService = mempoolService;
+        this.transactionRepository = transactionRepository;
+        this.ttl = ttl;
+        this.interval = interval;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts periodic sweeps on a daemon thread
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mempool-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sweep, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        LoggerUtil.logInfo(String.format("Mempool expiry sweeper started (TTL: %d min, every %d s)",
+            ttl.toMinutes(), interval.getSeconds()));
+    }
+
+    /**
+     * Stops periodic sweeps
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Runs one sweep: expires batches until nothing older than the TTL is left
+     * @return Number of transactions expired in memory
+     */
+    public int sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        int expired = 0;
+        sweeps.incrementAndGet();
+
+        List<Transaction> batch;
+        do {
+            batch = mempoolService.expireOlderThan(cutoff, batchSize);
+            expired += batch.size();
+        } while (!batch.isEmpty());
+        expiredInMemory.addAndGet(expired);
+
+        try {
+            int rows;
+            do {
+                rows = transactionRepository.expirePendingOlderThan(cutoff, batchSize);
+                expiredInDatabase.addAndGet(rows);
+            } while (rows == batchSize);
+        } catch (SQLException e) {
+            databaseErrors.incrementAndGet();
+            LoggerUtil.logError("Error expiring pending transactions in database", e);
+        }
+
+        if (expired > 0) {
+            LoggerUtil.logInfo(String.format("Expiry sweep: %d pending transactions older than %s rejected",
+                expired, cutoff));
+        }
+        return expired;
+    }
+
+    public long getSweepCount() { return sweeps.get(); }
+    public long getExpiredInMemory() { return expiredInMemory.get(); }
+    public long getExpiredInDatabase() { return expiredInDatabase.get(); }
+    public long getDatabaseErrors() { return databaseErrors.get(); }
+
+    /**
+     * Expiry metrics summary
+     */
+    public String getStats() {
+        return String.format("Expiry: %d sweeps | %d expired in memory, %d in database (%d DB errors)",
+            sweeps.get(), expiredInMemory.get(), expiredInDatabase.get(), databaseErrors.get());
+    }
+}
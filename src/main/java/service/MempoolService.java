@@ -2,34 +2,77 @@ package service;
 
 import model.*;
 import enums.*;
+import exception.InvalidAddressException;
+import exception.InvalidAmountException;
+import exception.TransactionException;
+import repository.MempoolRepository;
+import repository.MempoolSnapshotStore;
+import util.EnvLoader;
 import util.LoggerUtil;
+import java.io.IOException;
+import java.sql.SQLException;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.security.SecureRandom;
 
 /**
  * Service to manage the mempool and simulate network activity
+ * The pool is sharded by crypto type: each chain has its own ordering,
+ * statistics, lock and confirmation loop. Aggregate views merge the shards in
+ * mempool priority order, as the single pool did; positions stay per chain.
  */
 public class MempoolService {
     
-    private final Mempool mempool;
+    private final Map<CryptoType, Mempool> shards;
     private final TransactionService transactionService;
     private final SecureRandom random;
+    private final BlockTemplateBuilder blockBuilder;
+    private final ExecutorService confirmers;
+    
+    // Capacity limits per shard from .env (0 = unbounded)
+    private static final int MAX_TRANSACTIONS = Integer.parseInt(EnvLoader.get("MEMPOOL_MAX_TRANSACTIONS", "0"));
+    private static final long MAX_BYTES = Long.parseLong(EnvLoader.get("MEMPOOL_MAX_BYTES", "0"));
     
     public MempoolService(TransactionService transactionService) {
-        this.mempool = new Mempool();
+        this.shards = new EnumMap<>(CryptoType.class);
+        for (CryptoType type : CryptoType.values()) {
+            shards.put(type, new Mempool(MAX_TRANSACTIONS, MAX_BYTES));
+        }
         this.transactionService = transactionService;
         this.random = new SecureRandom();
-        LoggerUtil.logInfo("MempoolService initialized");
+        this.blockBuilder = new BlockTemplateBuilder();
+        this.confirmers = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "mempool-confirmer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        LoggerUtil.logInfo("MempoolService initialized with " + shards.size() + " shards");
+    }
+    
+    private Mempool shard(CryptoType type) {
+        return shards.get(type);
     }
     
     /**
      * Adds a transaction to the mempool
+     * @return false if the mempool is full and the transaction was rejected
      */
-    public void addTransaction(Transaction transaction) {
-        mempool.addTransaction(transaction);
-        LoggerUtil.logTransaction(transaction.getId(), "ADDED_TO_MEMPOOL", 
-            String.format("Position: %d/%d", getPosition(transaction), getSize()));
+    public boolean addTransaction(Transaction transaction) {
+        Mempool mempool = shard(transaction.getType());
+        if (!mempool.addTransaction(transaction)) {
+            LoggerUtil.logWarning(String.format("Transaction %s rejected: mempool full (fee floor %.8f)", 
+                transaction.getId(), mempool.getMinFeeFloor()));
+            return false;
+        }
+        // Mempool.addTransaction already logged the admission with its position
+        return true;
     }
     
     /**
@@ -37,7 +80,31 @@ public class MempoolService {
      */
     public void generateRandomTransactions(int count) {
         LoggerUtil.logInfo(String.format("Generating %d random transactions", count));
+        produceRandomTransactions(count);
+    }
+    
+    /**
+     * Generates random transactions from several producer threads at once
+     * @param count Total number of transactions to generate
+     * @param producers Number of producer threads
+     */
+    public void generateRandomTransactions(int count, int producers) throws InterruptedException {
+        LoggerUtil.logInfo(String.format("Generating %d random transactions with %d producers", 
+            count, producers));
         
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int share = count / producers + (p < count % producers ? 1 : 0);
+                executor.execute(() -> produceRandomTransactions(share));
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    private void produceRandomTransactions(int count) {
         String[] btcAddresses = {
             "1A1zP1eP5QGefi2DMPTfTL5SLmv7DivfNa", "1BvBMSEYstWetqTFn5Au4m4GFg7xJaNVN2",
             "1C4dKM9RkWz2UqRdN9o4KZcXF8GYqF7XzG", "1D5zA7ZuTjp1UPCnPJzqV4hEqFxq2V6jNN"
@@ -63,7 +130,7 @@ public class MempoolService {
                 FeeLevel feeLevel = FeeLevel.values()[random.nextInt(FeeLevel.values().length)];
                 
                 Transaction tx = transactionService.createTransaction(fromAddr, toAddr, amount, type, feeLevel);
-                mempool.addTransaction(tx);
+                shard(type).addTransaction(tx);
                 
             } catch (Exception e) {
                 LoggerUtil.logError("Error generating random transaction", e);
@@ -72,77 +139,360 @@ public class MempoolService {
     }
     
     /**
-     * Get the position of a transaction in the mempool
+     * Get the position of a transaction in its chain's mempool (1 = next to confirm on that chain)
      */
     public int getPosition(Transaction transaction) {
-        return mempool.getPosition(transaction);
+        return shard(transaction.getType()).getPosition(transaction);
+    }
+    
+    /**
+     * Get the positions of several transactions given by ID
+     */
+    public Map<String, Integer> getPositionsById(Collection<String> transactionIds) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (Mempool mempool : shards.values()) {
+            positions.putAll(mempool.getPositionsById(transactionIds));
+        }
+        return positions;
+    }
+    
+    /**
+     * Find a pending transaction by ID
+     */
+    public Optional<Transaction> findPendingById(String transactionId) {
+        for (Mempool mempool : shards.values()) {
+            Optional<Transaction> found = mempool.findById(transactionId);
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Replace-by-fee: resubmit a pending transaction at a higher fee level
+     * The new transaction takes its rank directly; the original is marked REJECTED.
+     * @param transactionId ID of the pending transaction
+     * @param newFeeLevel The higher fee level
+     * @return The replacement transaction
+     * @throws TransactionException if the transaction is not pending or the new fees are not higher
+     */
+    public Transaction replaceByFee(String transactionId, FeeLevel newFeeLevel) 
+            throws TransactionException, InvalidAddressException, InvalidAmountException {
+        Transaction original = findPendingById(transactionId)
+            .orElseThrow(() -> new TransactionException("Transaction not in mempool", transactionId));
+        
+        double newFees = transactionService.getFeeCalculator(original.getType())
+            .calculateFees(original.getAmount(), newFeeLevel);
+        if (newFees <= original.getFees()) {
+            throw new TransactionException(String.format(
+                "Replacement fees %.8f must exceed current fees %.8f", newFees, original.getFees()), transactionId);
+        }
+        
+        Transaction replacement = transactionService.createTransaction(original.getFromAddress(), 
+            original.getToAddress(), original.getAmount(), original.getType(), newFeeLevel);
+        
+        if (!shard(original.getType()).replaceByFee(transactionId, replacement)) {
+            replacement.setStatus(TransactionStatus.REJECTED);
+            throw new TransactionException("Transaction left the mempool before it could be replaced", transactionId);
+        }
+        return replacement;
     }
     
     /**
      * Estimate waiting time for a transaction
      */
     public Duration estimateWaitingTime(Transaction transaction) {
-        return mempool.estimateWaitingTime(transaction);
+        return shard(transaction.getType()).estimateWaitingTime(transaction);
     }
     
     /**
-     * Get the current state of the mempool sorted by fees
+     * Get the current state of the mempool sorted by fees, all chains merged
      */
     public List<Transaction> getMempoolState() {
-        return mempool.getTransactionsByFees();
+        List<List<Transaction>> views = new ArrayList<>();
+        for (Mempool mempool : shards.values()) {
+            views.add(mempool.getTransactionsByFees());
+        }
+        return mergeByPriority(views, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Get the current state of one chain's mempool sorted by fees
+     */
+    public List<Transaction> getMempoolState(CryptoType type) {
+        return shard(type).getTransactionsByFees();
     }
     
     /**
      * Simulate confirming transactions (remove from mempool)
+     * Takes the highest-priority transactions across all shards.
+     * Safe to call from several confirmer threads: each transaction is taken once.
      */
     public List<Transaction> confirmTransactions(int count) {
-        List<Transaction> txToConfirm = mempool.getTransactionsByFees();
         List<Transaction> confirmed = new ArrayList<>();
+        for (Transaction tx : getTopTransactions(count)) {
+            if (shard(tx.getType()).removeTransaction(tx)) {
+                confirm(tx, "Removed from mempool");
+                confirmed.add(tx);
+            }
+        }
+        return confirmed;
+    }
+    
+    /**
+     * Confirm the highest-priority transactions of one chain
+     */
+    public List<Transaction> confirmTransactions(CryptoType type, int count) {
+        List<Transaction> confirmed = shard(type).pollTopTransactions(count);
+        for (Transaction tx : confirmed) {
+            confirm(tx, "Removed from mempool");
+        }
+        return confirmed;
+    }
+    
+    /**
+     * Expire pending transactions created before the cutoff, across all shards
+     * @param cutoff Creation time before which transactions expire
+     * @param maxBatch Maximum number of transactions to expire per shard
+     * @return The expired transactions (now REJECTED)
+     */
+    public List<Transaction> expireOlderThan(LocalDateTime cutoff, int maxBatch) {
+        List<Transaction> expired = new ArrayList<>();
+        for (Mempool mempool : shards.values()) {
+            expired.addAll(mempool.expireOlderThan(cutoff, maxBatch));
+        }
+        return expired;
+    }
+    
+    /**
+     * Build the next block for a crypto type without confirming it
+     */
+    public BlockTemplate buildBlockTemplate(CryptoType type) {
+        return blockBuilder.build(shard(type), type, transactionService.getFeeCalculator(type));
+    }
+    
+    /**
+     * Mine one block: fill it up to the chain's byte/gas budget and confirm its transactions
+     * @return The confirmed block (transactions taken by a concurrent confirmer are left out)
+     */
+    public BlockTemplate confirmBlock(CryptoType type) {
+        Mempool mempool = shard(type);
+        FeeCalculator calculator = transactionService.getFeeCalculator(type);
+        BlockTemplate candidate = blockBuilder.build(mempool, type, calculator);
+        BlockTemplate block = new BlockTemplate(type, candidate.getCapacity());
         
-        for (int i = 0; i < Math.min(count, txToConfirm.size()); i++) {
-            Transaction tx = txToConfirm.get(i);
-            tx.setStatus(TransactionStatus.CONFIRMED);
-            mempool.removeTransaction(tx);
-            confirmed.add(tx);
-            
-            LoggerUtil.logTransaction(tx.getId(), "CONFIRMED", "Removed from mempool");
+        for (Transaction tx : mempool.removeTransactions(candidate.getTransactions())) {
+            block.tryAdd(tx, calculator.getTransactionWeight(tx));
+            confirm(tx, "Included in " + type + " block");
         }
         
-        return confirmed;
+        LoggerUtil.logInfo("Block confirmed: " + block);
+        return block;
+    }
+    
+    /**
+     * Mine one block on every chain at once, each shard on its own confirmer thread
+     * @return The confirmed block of each chain
+     */
+    public Map<CryptoType, BlockTemplate> confirmBlocks() throws InterruptedException {
+        Map<CryptoType, Future<BlockTemplate>> futures = new EnumMap<>(CryptoType.class);
+        for (CryptoType type : shards.keySet()) {
+            futures.put(type, confirmers.submit(() -> confirmBlock(type)));
+        }
+        
+        Map<CryptoType, BlockTemplate> blocks = new EnumMap<>(CryptoType.class);
+        for (Map.Entry<CryptoType, Future<BlockTemplate>> entry : futures.entrySet()) {
+            try {
+                blocks.put(entry.getKey(), entry.getValue().get());
+            } catch (ExecutionException e) {
+                LoggerUtil.logError("Block confirmation failed for " + entry.getKey(), e.getCause());
+            }
+        }
+        return blocks;
+    }
+    
+    private void confirm(Transaction tx, String details) {
+        tx.setStatus(TransactionStatus.CONFIRMED);
+        LoggerUtil.logTransaction(tx.getId(), "CONFIRMED", details);
+    }
+    
+    /**
+     * Get the highest-priority transactions across all shards
+     * Each shard's top is a consistent snapshot; the shards are merged by priority.
+     */
+    public List<Transaction> getTopTransactions(int count) {
+        List<List<Transaction>> tops = new ArrayList<>();
+        for (Mempool mempool : shards.values()) {
+            tops.add(mempool.getTopTransactions(count));
+        }
+        return mergeByPriority(tops, count);
+    }
+    
+    /**
+     * Get a consistent snapshot of the highest-priority transactions of one chain
+     * Reads only the first count entries; prefer it to getMempoolState when only the top is shown.
+     */
+    public List<Transaction> getTopTransactions(CryptoType type, int count) {
+        return shard(type).getTopTransactions(count);
     }
     
     /**
      * Get current mempool size
      */
     public int getSize() {
-        return mempool.size();
+        int size = 0;
+        for (Mempool mempool : shards.values()) {
+            size += mempool.size();
+        }
+        return size;
+    }
+    
+    /**
+     * Get the size of one chain's mempool
+     */
+    public int getSize(CryptoType type) {
+        return shard(type).size();
+    }
+    
+    /**
+     * Get the fee a new transaction must exceed to enter a full mempool
+     */
+    public double getMinFeeFloor(CryptoType type) {
+        return shard(type).getMinFeeFloor();
+    }
+    
+    /**
+     * Get the number of transactions evicted because the mempool was full
+     */
+    public long getEvictedCount() {
+        long evicted = 0;
+        for (Mempool mempool : shards.values()) {
+            evicted += mempool.getEvictedCount();
+        }
+        return evicted;
     }
     
     /**
      * Check if mempool is empty
      */
     public boolean isEmpty() {
-        return mempool.isEmpty();
+        return getSize() == 0;
     }
     
     /**
-     * Get detailed statistics of the mempool
+     * Get detailed statistics of the mempool, one line per chain
      */
     public String getMempoolStats() {
-        List<Transaction> transactions = mempool.getTransactionsByFees();
+        StringBuilder stats = new StringBuilder();
+        for (CryptoType type : shards.keySet()) {
+            if (stats.length() > 0) {
+                stats.append("\n");
+            }
+            stats.append(getMempoolStats(type));
+        }
+        return stats.toString();
+    }
+    
+    /**
+     * Get detailed statistics of one chain's mempool
+     * Read from the shard's running aggregates: constant time at any pool size.
+     */
+    public String getMempoolStats(CryptoType type) {
+        FeeHistogram stats = getFeeHistogram(type);
         
-        if (transactions.isEmpty()) {
-            return "Mempool is empty";
+        if (stats.getCount() == 0) {
+            return String.format("Mempool %s is empty", type.getSymbol());
         }
         
-        double highestFees = transactions.get(0).getFees();
-        double lowestFees = transactions.get(transactions.size() - 1).getFees();
-        double avgFees = transactions.stream()
-                .mapToDouble(Transaction::getFees)
-                .average()
-                .orElse(0.0);
+        return String.format("Mempool %s: %d transactions | Fees: %.8f (min) - %.8f (max) - %.8f (avg)" +
+                " | p50 ≤ %.8f, p90 ≤ %.8f", 
+            type.getSymbol(), stats.getCount(), stats.getLowestFees(), stats.getHighestFees(), 
+            stats.getAverageFees(), stats.getPercentile(50), stats.getPercentile(90));
+    }
+    
+    /**
+     * Get the fee aggregates and bucket counts of one chain's mempool
+     */
+    public FeeHistogram getFeeHistogram(CryptoType type) {
+        return shard(type).getFeeHistogram();
+    }
+    
+    /**
+     * Writes every shard to the snapshot file, in priority order
+     */
+    public void saveSnapshot(MempoolSnapshotStore store) throws IOException {
+        store.write(getMempoolState());
+    }
+    
+    /**
+     * Rebuilds the mempool after a restart
+     * Loads the snapshot file in one sequential pass; falls back to the database
+     * only when the snapshot is missing or older than maxAge. A restored snapshot is
+     * deleted, so a crash before the next save falls back to the database instead of
+     * reviving transactions confirmed or expired in the meantime.
+     * @return Number of transactions restored
+     */
+    public int restoreMempool(MempoolSnapshotStore store, MempoolRepository repository, Duration maxAge) {
+        Map<CryptoType, List<Transaction>> byType = new EnumMap<>(CryptoType.class);
+        Consumer<Transaction> collect = tx -> {
+            transactionService.registerTransaction(tx);
+            byType.computeIfAbsent(tx.getType(), t -> new ArrayList<>()).add(tx);
+        };
+        
+        Optional<List<Transaction>> snapshot = store.load(maxAge);
+        if (snapshot.isPresent()) {
+            snapshot.get().forEach(collect);
+        } else {
+            try {
+                // Streamed straight into the per-chain lists, without an intermediate full list
+                long rows = repository.forEachPendingOrderedByFees(collect);
+                LoggerUtil.logInfo("Mempool restored from database: " + rows + " transactions");
+            } catch (SQLException e) {
+                LoggerUtil.logError("Unable to restore mempool from database", e);
+                return 0;
+            }
+        }
         
-        return String.format("Mempool: %d transactions | Fees: %.8f (min) - %.8f (max) - %.8f (avg)", 
-            transactions.size(), lowestFees, highestFees, avgFees);
+        int restored = 0;
+        for (Map.Entry<CryptoType, List<Transaction>> entry : byType.entrySet()) {
+            restored += shard(entry.getKey()).addTransactions(entry.getValue());
+        }
+        if (snapshot.isPresent()) {
+            try {
+                store.delete();
+            } catch (IOException e) {
+                LoggerUtil.logError("Unable to delete the restored mempool snapshot", e);
+            }
+        }
+        return restored;
+    }
+    
+    /**
+     * Stops the confirmer threads
+     */
+    public void shutdown() {
+        confirmers.shutdown();
+    }
+    
+    /**
+     * Merges lists already sorted by mempool priority
+     */
+    private static List<Transaction> mergeByPriority(List<List<Transaction>> sorted, int limit) {
+        List<Transaction> merged = new ArrayList<>();
+        int[] cursors = new int[sorted.size()];
+        
+        while (merged.size() < limit) {
+            int best = -1;
+            for (int i = 0; i < sorted.size(); i++) {
+                if (cursors[i] < sorted.get(i).size() && (best < 0 || Mempool.FEE_PRIORITY.compare(
+                        sorted.get(i).get(cursors[i]), sorted.get(best).get(cursors[best])) < 0)) {
+                    best = i;
+                }
+            }
+            if (best < 0) break;
+            merged.add(sorted.get(best).get(cursors[best]++));
+        }
+        return merged;
     }
 }
@@ -0,0 +1,57 @@
+package service;
+
+import repository.Page;
+import repository.PageCursor;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+
+/**
+ * Walks a keyset-paginated query one page at a time
+ * Only the current page is held in memory; each call to next() runs one bounded query.
+ * @param <T> The entity type
+ */
+public class PageIterator<T> {
+
+    /**
+     * Fetches the page following a cursor (null for the first page)
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        Page<T> fetch(PageCursor after) throws SQLException;
+    }
+
+    private final PageFetcher<T> fetcher;
+    private PageCursor cursor;
+    private boolean exhausted;
+    private int pageNumber;
+
+    public PageIterator(PageFetcher<T> fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    public boolean hasNext() {
+        return !exhausted;
+    }
+
+    /**
+     * @return The next page
+     * @throws SQLException if the query fails (the iterator stays on the same page)
+     */
+    public Page<T> next() throws SQLException {
+        if (exhausted) {
+            throw new NoSuchElementException();
+        }
+        Page<T> page = fetcher.fetch(cursor);
+        pageNumber++;
+        cursor = page.getNextCursor();
+        exhausted = !page.hasNext();
+        return page;
+    }
+
+    /**
+     * @return Number of the last page returned by next() (1-based)
+     */
+    public int getPageNumber() {
+        return pageNumber;
+    }
+}
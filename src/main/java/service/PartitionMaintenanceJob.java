@@ -0,0 +1,125 @@
+package service;
+
+import repository.TransactionPartitionRepository;
+import util.LoggerUtil;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job maintaining the monthly transaction partitions
+ * Creates partitions ahead of time so inserts never land in the default partition,
+ * and archives the ones older than the retention period once no pending
+ * transaction is left in them.
+ */
+public class PartitionMaintenanceJob {
+
+    private final TransactionPartitionRepository partitionRepository;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Duration interval;
+    private ScheduledExecutorService scheduler;
+
+    // Metrics
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong archived = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    /**
+     * @param monthsAhead Future months that must already have a partition
+     * @param retentionMonths Months of history kept attached, the current one included
+     * @param interval Time between two runs
+     */
+    public PartitionMaintenanceJob(TransactionPartitionRepository partitionRepository,
+                                   int monthsAhead, int retentionMonths, Duration interval) {
+        if (retentionMonths < 1) {
+            throw new IllegalArgumentException("Retention must be at least one month: " + retentionMonths);
+        }
+        this.partitionRepository = partitionRepository;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.interval = interval;
+    }
+
+    /**
+     * Runs once now, then periodically on a daemon thread
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "partition-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runMaintenance, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        LoggerUtil.logInfo(String.format("Partition maintenance started (%d months ahead, %d months kept)",
+            monthsAhead, retentionMonths));
+    }
+
+    /**
+     * Stops periodic runs
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Creates missing partitions up to monthsAhead and archives expired ones
+     */
+    public void runMaintenance() {
+        runs.incrementAndGet();
+        YearMonth current = YearMonth.now();
+        YearMonth oldestKept = current.minusMonths(retentionMonths - 1);
+
+        try {
+            for (int i = 0; i <= monthsAhead; i++) {
+                if (partitionRepository.createPartition(current.plusMonths(i))) {
+                    created.incrementAndGet();
+                }
+            }
+            for (YearMonth month : partitionRepository.findPartitions()) {
+                if (!month.isBefore(oldestKept)) {
+                    break;
+                }
+                long pending = partitionRepository.countPending(month);
+                if (pending > 0) {
+                    LoggerUtil.logWarning(String.format("Partition %s kept: %d pending transactions left",
+                        TransactionPartitionRepository.partitionName(month), pending));
+                    continue;
+                }
+                partitionRepository.archivePartition(month);
+                archived.incrementAndGet();
+            }
+            long misplaced = partitionRepository.countDefaultPartitionRows();
+            if (misplaced > 0) {
+                LoggerUtil.logWarning(misplaced + " transactions are in the default partition");
+            }
+        } catch (SQLException e) {
+            errors.incrementAndGet();
+            LoggerUtil.logError("Partition maintenance failed", e);
+        }
+    }
+
+    public long getRunCount() { return runs.get(); }
+    public long getCreatedCount() { return created.get(); }
+    public long getArchivedCount() { return archived.get(); }
+    public long getErrorCount() { return errors.get(); }
+
+    /**
+     * Partition maintenance metrics summary
+     */
+    public String getStats() {
+        return String.format("Partitions: %d runs | %d created, %d archived (%d errors)",
+            runs.get(), created.get(), archived.get(), errors.get());
+    }
+}
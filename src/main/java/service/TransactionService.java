@@ -14,11 +14,38 @@ public class TransactionService {
     
     private final Map<CryptoType, FeeCalculator> feeCalculators;
     private final WalletService walletService;
-    private final List<Transaction> transactions;
+    private final WriteBehindWriter writer;
+    
+    // Indexes, all guarded by indexLock; status buckets move on each transition
+    private final Object indexLock = new Object();
+    private final Map<String, Transaction> transactionsById;
+    // Status each transaction is counted under, which may lag its live status until the listener runs
+    private final Map<String, TransactionStatus> indexedStatus;
+    private final Map<TransactionStatus, Map<String, Transaction>> transactionsByStatus;
+    private final Map<CryptoType, Map<String, Transaction>> transactionsByType;
+    private final TransactionStats stats;
     
     public TransactionService(WalletService walletService) {
+        this(walletService, null);
+    }
+    
+    /**
+     * @param writer Persists new transactions in the background (null for memory only)
+     */
+    public TransactionService(WalletService walletService, WriteBehindWriter writer) {
         this.walletService = walletService;
-        this.transactions = new ArrayList<>();
+        this.writer = writer;
+        this.transactionsById = new HashMap<>();
+        this.indexedStatus = new HashMap<>();
+        this.transactionsByStatus = new EnumMap<>(TransactionStatus.class);
+        for (TransactionStatus status : TransactionStatus.values()) {
+            transactionsByStatus.put(status, new LinkedHashMap<>());
+        }
+        this.transactionsByType = new EnumMap<>(CryptoType.class);
+        for (CryptoType type : CryptoType.values()) {
+            transactionsByType.put(type, new LinkedHashMap<>());
+        }
+        this.stats = new TransactionStats();
         this.feeCalculators = new HashMap<>();
         
         // Initialize fee calculators
@@ -47,7 +74,10 @@ public class TransactionService {
         transaction.setFees(fees);
         
         // Store transaction
-        transactions.add(transaction);
+        index(transaction);
+        if (writer != null) {
+            writer.saveTransaction(transaction);
+        }
         
         LoggerUtil.logTransaction(transaction.getId(), "CREATED", 
             String.format("Fees: %.8f %s", fees, type.getSymbol()));
@@ -55,6 +85,52 @@ public class TransactionService {
         return transaction;
     }
     
+    /**
+     * Register a transaction loaded from storage (snapshot or database)
+     * May be called while other threads change the transaction's status:
+     * the status listener reconciles against the status recorded here.
+     */
+    public void registerTransaction(Transaction transaction) {
+        index(transaction);
+    }
+    
+    /**
+     * Status listener moving the transaction to its new status bucket and updating the counters
+     * (registered on Transaction by the application context)
+     */
+    public void onStatusChange(Transaction transaction, TransactionStatus oldStatus, TransactionStatus newStatus) {
+        synchronized (indexLock) {
+            // Ignore transactions this service does not hold
+            if (transactionsById.get(transaction.getId()) != transaction) {
+                return;
+            }
+            // The listener runs outside the transaction's lock: if index() read the status after
+            // it was written, the transition is already counted and the event must not move it again
+            if (indexedStatus.get(transaction.getId()) != oldStatus) {
+                return;
+            }
+            indexedStatus.put(transaction.getId(), newStatus);
+            transactionsByStatus.get(oldStatus).remove(transaction.getId());
+            transactionsByStatus.get(newStatus).put(transaction.getId(), transaction);
+            stats.move(transaction.getType(), oldStatus, newStatus, transaction.getAmount(), transaction.getFees());
+        }
+    }
+    
+    private void index(Transaction transaction) {
+        synchronized (indexLock) {
+            if (transactionsById.putIfAbsent(transaction.getId(), transaction) != null) {
+                return;
+            }
+            // Status read once under the lock: a concurrent transition is either seen here
+            // (its event is then ignored) or moved later by the listener
+            TransactionStatus status = transaction.getStatus();
+            indexedStatus.put(transaction.getId(), status);
+            transactionsByStatus.get(status).put(transaction.getId(), transaction);
+            transactionsByType.get(transaction.getType()).put(transaction.getId(), transaction);
+            stats.add(transaction.getType(), status, transaction.getAmount(), transaction.getFees());
+        }
+    }
+    
     /**
      * Validate transaction inputs
      */
@@ -93,31 +169,44 @@ public class TransactionService {
         return comparison;
     }
     
+    /**
+     * Get the fee calculator used for a crypto type
+     */
+    public FeeCalculator getFeeCalculator(CryptoType type) {
+        return feeCalculators.get(type);
+    }
+    
     /**
      * Find a transaction by ID
      */
     public Optional<Transaction> findById(String transactionId) {
-        return transactions.stream()
-                .filter(tx -> tx.getId().equals(transactionId))
-                .findFirst();
+        synchronized (indexLock) {
+            return Optional.ofNullable(transactionsById.get(transactionId));
+        }
     }
     
     /**
      * Get all transactions of a specific type
      */
     public List<Transaction> getTransactionsByType(CryptoType type) {
-        return transactions.stream()
-                .filter(tx -> tx.getType() == type)
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        synchronized (indexLock) {
+            return new ArrayList<>(transactionsByType.get(type).values());
+        }
     }
     
     /**
      * Get all transactions by status
      */
     public List<Transaction> getTransactionsByStatus(TransactionStatus status) {
-        return transactions.stream()
-                .filter(tx -> tx.getStatus() == status)
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        synchronized (indexLock) {
+            return new ArrayList<>(transactionsByStatus.get(status).values());
+        }
+    }
+    
+    public int getTransactionCount() {
+        synchronized (indexLock) {
+            return transactionsById.size();
+        }
     }
     
     /**
@@ -134,17 +223,18 @@ public class TransactionService {
     }
     
     /**
-     * Transaction statistics
+     * Running counters per crypto type and status
+     */
+    public TransactionStats getStats() {
+        return stats;
+    }
+    
+    /**
+     * Transaction statistics, read from the running counters
      */
     public String getTransactionStats() {
-        long pendingCount = transactions.stream()
-                .filter(tx -> tx.getStatus() == TransactionStatus.PENDING)
-                .count();
-        long confirmedCount = transactions.stream()
-                .filter(tx -> tx.getStatus() == TransactionStatus.CONFIRMED)
-                .count();
-        
-        return String.format("Transactions: %d total (%d pending, %d confirmed)", 
-            transactions.size(), pendingCount, confirmedCount);
+        return String.format("Transactions: %d total (%d pending, %d confirmed, %d rejected)", 
+            stats.getTotalCount(), stats.getCount(TransactionStatus.PENDING),
+            stats.getCount(TransactionStatus.CONFIRMED), stats.getCount(TransactionStatus.REJECTED));
     }
 }
@@ -2,23 +2,50 @@ package service;
 
 import model.*;
 import enums.CryptoType;
+import exception.InvalidAmountException;
+import exception.TransactionException;
 import exception.WalletNotFoundException;
 import util.LoggerUtil;
-import java.util.HashMap;
+import util.UUIDGenerator;
 import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service to manage wallets
+ * Thread-safe: balance changes run under per-wallet striped locks, taken in stripe
+ * order when a transfer needs two of them, so transfers between unrelated wallets
+ * proceed in parallel and cannot deadlock.
  */
 public class WalletService {
     
+    // Power of two: the stripe is picked by masking the id hash
+    private static final int LOCK_STRIPES = 64;
+    
     private final Map<String, Wallet> wallets;
+    // Secondary index on address, kept in step with wallets
+    private final Map<String, Wallet> walletsByAddress;
+    private final WriteBehindWriter writer;
+    private final ReentrantLock[] locks;
     
     public WalletService() {
-        this.wallets = new HashMap<>();
+        this(null);
+    }
+    
+    /**
+     * @param writer Persists wallet changes in the background (null for memory only)
+     */
+    public WalletService(WriteBehindWriter writer) {
+        this.wallets = new ConcurrentHashMap<>();
+        this.walletsByAddress = new ConcurrentHashMap<>();
+        this.writer = writer;
+        this.locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
         LoggerUtil.logInfo("WalletService initialized");
     }
     
@@ -42,8 +69,12 @@ public class WalletService {
         }
         
         wallets.put(wallet.getId(), wallet);
+        walletsByAddress.put(wallet.getAddress(), wallet);
+        if (writer != null) {
+            writer.saveWallet(wallet);
+        }
         LoggerUtil.logInfo(String.format("Wallet created: %s [%s]", 
-            wallet.getId().substring(0, 8), type));
+            UUIDGenerator.shortId(wallet.getId()), type));
         
         return wallet;
     }
@@ -68,9 +99,7 @@ public class WalletService {
      * @return Optional containing wallet or empty
      */
     public Optional<Wallet> findByAddress(String address) {
-        return wallets.values().stream()
-                .filter(wallet -> wallet.getAddress().equals(address))
-                .findFirst();
+        return Optional.ofNullable(walletsByAddress.get(address));
     }
     
     /**
@@ -100,7 +129,77 @@ public class WalletService {
      */
     public void updateBalance(String walletId, double newBalance) throws WalletNotFoundException {
         Wallet wallet = findById(walletId);
-        wallet.updateBalance(newBalance);
+        ReentrantLock lock = lockFor(walletId);
+        lock.lock();
+        try {
+            wallet.updateBalance(newBalance);
+        } finally {
+            lock.unlock();
+        }
+        persistBalance(wallet);
+    }
+    
+    /**
+     * Atomically moves funds between two wallets of the same crypto type
+     * The sender is debited amount + fees (fees go to the miners), the receiver
+     * credited amount. Both wallets are locked for the whole check-and-update.
+     * @param fromWalletId Sender wallet ID
+     * @param toWalletId Receiver wallet ID
+     * @param amount Amount to transfer
+     * @param fees Transaction fees paid by the sender
+     * @throws WalletNotFoundException if a wallet does not exist
+     * @throws InvalidAmountException if the amount is not positive or the fees are negative
+     * @throws TransactionException if the wallets are the same or of different types, or funds are insufficient
+     */
+    public void transfer(String fromWalletId, String toWalletId, double amount, double fees)
+            throws WalletNotFoundException, InvalidAmountException, TransactionException {
+        if (!(amount > 0)) {
+            throw new InvalidAmountException(amount);
+        }
+        if (!(fees >= 0)) {
+            throw new InvalidAmountException("Fees cannot be negative: " + fees, fees);
+        }
+        if (fromWalletId.equals(toWalletId)) {
+            throw new TransactionException("Source and destination wallets must be different");
+        }
+        Wallet from = findById(fromWalletId);
+        Wallet to = findById(toWalletId);
+        if (from.getType() != to.getType()) {
+            throw new TransactionException(String.format("Cannot transfer %s to a %s wallet",
+                from.getType(), to.getType()));
+        }
+        
+        // Lower stripe first: two transfers never wait on each other's second lock
+        int fromStripe = stripe(fromWalletId);
+        int toStripe = stripe(toWalletId);
+        ReentrantLock first = locks[Math.min(fromStripe, toStripe)];
+        ReentrantLock second = locks[Math.max(fromStripe, toStripe)];
+        first.lock();
+        second.lock();
+        try {
+            // Deleted while we were waiting
+            if (wallets.get(fromWalletId) != from) {
+                throw new WalletNotFoundException(fromWalletId);
+            }
+            if (wallets.get(toWalletId) != to) {
+                throw new WalletNotFoundException(toWalletId);
+            }
+            if (!from.canAfford(amount, fees)) {
+                throw new TransactionException(String.format("Insufficient funds in wallet %s: %.8f < %.8f %s",
+                    UUIDGenerator.shortId(fromWalletId), from.getBalance(), amount + fees, from.getType().getSymbol()));
+            }
+            from.updateBalance(from.getBalance() - amount - fees);
+            to.updateBalance(to.getBalance() + amount);
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+        // Outside the locks: enqueueing may block on a full write-behind queue
+        persistBalance(from);
+        persistBalance(to);
+        
+        LoggerUtil.logInfo(String.format("Transfer %.8f %s (fees %.8f): %s -> %s", amount,
+            from.getType().getSymbol(), fees, UUIDGenerator.shortId(fromWalletId), UUIDGenerator.shortId(toWalletId)));
     }
     
     /**
@@ -109,13 +208,40 @@ public class WalletService {
      * @return true if deleted successfully
      */
     public boolean deleteWallet(String walletId) {
-        Wallet wallet = wallets.get(walletId);
-        if (wallet != null && wallet.getBalance() == 0.0) {
-            wallets.remove(walletId);
-            LoggerUtil.logInfo(String.format("Wallet deleted: %s", walletId.substring(0, 8)));
-            return true;
+        ReentrantLock lock = lockFor(walletId);
+        lock.lock();
+        try {
+            Wallet wallet = wallets.get(walletId);
+            if (wallet != null && wallet.getBalance() == 0.0) {
+                wallets.remove(walletId);
+                walletsByAddress.remove(wallet.getAddress());
+                LoggerUtil.logInfo(String.format("Wallet deleted: %s", UUIDGenerator.shortId(walletId)));
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
         }
-        return false;
+    }
+    
+    /**
+     * Queues the persistence of a wallet's balance
+     * The writer reads the balance when it writes, so calls racing after the
+     * lock is released still leave the latest balance in the database.
+     */
+    private void persistBalance(Wallet wallet) {
+        if (writer != null) {
+            writer.updateBalance(wallet);
+        }
+    }
+    
+    private int stripe(String walletId) {
+        int h = walletId.hashCode();
+        return (h ^ (h >>> 16)) & (LOCK_STRIPES - 1);
+    }
+    
+    private ReentrantLock lockFor(String walletId) {
+        return locks[stripe(walletId)];
     }
     
     /**
@@ -0,0 +1,344 @@
+package service;
+
+import model.Transaction;
+import model.Wallet;
+import repository.TransactionRepository;
+import repository.WalletRepository;
+import util.LoggerUtil;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind persistence of service-layer mutations
+ * Creations, status changes and balance updates are queued in memory and written
+ * by a background thread in coalesced batches (several updates of the same row in
+ * a batch become one write). The queue is bounded: producers block while it is full,
+ * so a mutation is never dropped once the in-memory state has changed.
+ * Data is durable once flush() has returned true.
+ */
+public class WriteBehindWriter {
+
+    private enum Kind { INSERT_WALLET, INSERT_TRANSACTION, TRANSACTION_STATUS, WALLET_BALANCE }
+
+    private static final class Write {
+        final Kind kind;
+        final String key;
+        final Object payload;
+
+        Write(Kind kind, String key, Object payload) {
+            this.kind = kind;
+            this.key = key;
+            this.payload = payload;
+        }
+    }
+
+    @FunctionalInterface
+    private interface BulkWrite<E> {
+        void write(Collection<E> rows) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface RowWrite<E> {
+        void write(E row) throws SQLException;
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final WalletRepository walletRepository;
+    private final BlockingQueue<Write> queue;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final Thread worker;
+    // Written under enqueueLock so that no write is counted after close() took its target
+    private volatile boolean running = true;
+
+    // Enqueued/processed counts drive flush(): both only grow, under their own short locks
+    private final Object enqueueLock = new Object();
+    private final Object progressLock = new Object();
+    private long enqueuedCount;
+    private long processedCount;
+
+    // Metrics
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong backpressureWaits = new AtomicLong();
+    private final AtomicLong backpressureNanos = new AtomicLong();
+
+    /**
+     * @param capacity Maximum number of queued writes
+     * @param batchSize Maximum number of writes drained per batch
+     * @param lingerMillis How long the writer waits for more writes before flushing a partial batch
+     */
+    public WriteBehindWriter(TransactionRepository transactionRepository, WalletRepository walletRepository,
+                             int capacity, int batchSize, long lingerMillis) {
+        this.transactionRepository = transactionRepository;
+        this.walletRepository = walletRepository;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+
+        this.worker = new Thread(this::run, "write-behind");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    // ===== PRODUCERS =====
+    // Each blocks while the queue is full, and throws IllegalStateException once the writer is closed
+
+    public void saveTransaction(Transaction tx) {
+        enqueue(new Write(Kind.INSERT_TRANSACTION, tx.getId(), tx));
+    }
+
+    /**
+     * Queues the persistence of a transaction's status
+     * The status is read when the batch is written, as for balances; the transaction
+     * also carries created_at, which routes the update to its partition.
+     */
+    public void updateStatus(Transaction tx) {
+        enqueue(new Write(Kind.TRANSACTION_STATUS, tx.getId(), tx));
+    }
+
+    public void saveWallet(Wallet wallet) {
+        enqueue(new Write(Kind.INSERT_WALLET, wallet.getId(), wallet));
+    }
+
+    /**
+     * Queues the persistence of a wallet's balance
+     * The balance is read when the batch is written, so a later call can never be
+     * overtaken by an earlier one: callers may enqueue after releasing the wallet's lock.
+     */
+    public void updateBalance(Wallet wallet) {
+        enqueue(new Write(Kind.WALLET_BALANCE, wallet.getId(), wallet));
+    }
+
+    private void enqueue(Write write) {
+        // Counted first, under a short lock: flush() then also waits for writes still blocked in put()
+        synchronized (enqueueLock) {
+            if (!running) {
+                throw new IllegalStateException("Write-behind writer is closed, cannot persist " + write.key);
+            }
+            enqueuedCount++;
+        }
+
+        if (!queue.offer(write)) {
+            backpressureWaits.incrementAndGet();
+            long start = System.nanoTime();
+            putUninterruptibly(write);
+            backpressureNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The write is already counted and the in-memory change is done: an interrupt
+     * must not lose it, so it is deferred until the write is queued
+     */
+    private void putUninterruptibly(Write write) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    queue.put(write);
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // ===== FLUSH / SHUTDOWN =====
+
+    /**
+     * Waits until every write queued before this call has been applied
+     * @param timeoutMillis Maximum time to wait
+     * @return true if they were all written, false on timeout or if some of them failed
+     */
+    public boolean flush(long timeoutMillis) throws InterruptedException {
+        long target;
+        synchronized (enqueueLock) {
+            target = enqueuedCount;
+        }
+        long failuresBefore = failed.get();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        synchronized (progressLock) {
+            while (processedCount < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                progressLock.wait(remaining);
+            }
+        }
+        return failed.get() == failuresBefore;
+    }
+
+    /**
+     * Stops accepting writes, drains the queue and stops the writer thread
+     * @return true if everything queued was written
+     */
+    public boolean close(long timeoutMillis) throws InterruptedException {
+        synchronized (enqueueLock) {
+            running = false;
+        }
+        boolean flushed = flush(timeoutMillis);
+        worker.interrupt();
+        worker.join(timeoutMillis);
+        LoggerUtil.logInfo("Write-behind stopped: " + getStats());
+        return flushed;
+    }
+
+    // ===== WRITER =====
+
+    private void run() {
+        List<Write> batch = new ArrayList<>(batchSize);
+        while (running || !isDrained()) {
+            try {
+                Write first = queue.poll(lingerMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                if (queue.isEmpty()) {
+                    break;
+                }
+                queue.drainTo(batch, batchSize);
+            }
+
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                failed.addAndGet(batch.size());
+                LoggerUtil.logError("Write-behind batch failed", e);
+            }
+            synchronized (progressLock) {
+                processedCount += batch.size();
+                progressLock.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * True once every counted write has been processed (including writes counted but not yet queued)
+     */
+    private boolean isDrained() {
+        long target;
+        synchronized (enqueueLock) {
+            target = enqueuedCount;
+        }
+        synchronized (progressLock) {
+            return processedCount >= target;
+        }
+    }
+
+    /**
+     * Coalesces a batch per row and writes it: inserts first, then the latest update of each row
+     */
+    private void writeBatch(List<Write> batch) {
+        Map<String, Wallet> walletInserts = new LinkedHashMap<>();
+        Map<String, Transaction> transactionInserts = new LinkedHashMap<>();
+        Map<String, Transaction> statusUpdates = new LinkedHashMap<>();
+        Map<String, Double> balances = new LinkedHashMap<>();
+
+        for (Write write : batch) {
+            switch (write.kind) {
+                case INSERT_WALLET:
+                    walletInserts.put(write.key, (Wallet) write.payload);
+                    break;
+                case INSERT_TRANSACTION:
+                    transactionInserts.put(write.key, (Transaction) write.payload);
+                    break;
+                case TRANSACTION_STATUS:
+                    // An insert in the same batch already carries the current status
+                    if (transactionInserts.containsKey(write.key)
+                            || statusUpdates.put(write.key, (Transaction) write.payload) != null) {
+                        coalesced.incrementAndGet();
+                    }
+                    break;
+                case WALLET_BALANCE:
+                    if (walletInserts.containsKey(write.key)
+                            || balances.put(write.key, ((Wallet) write.payload).getBalance()) != null) {
+                        coalesced.incrementAndGet();
+                    }
+                    break;
+            }
+        }
+
+        write("wallet inserts", walletInserts.values(), walletRepository::saveAll, walletRepository::saveIfAbsent);
+        write("transaction inserts", transactionInserts.values(),
+            transactionRepository::saveAll, transactionRepository::saveIfAbsent);
+        write("status updates", statusUpdates.values(),
+            transactionRepository::updateStatuses, transactionRepository::updateStatus);
+        write("balance updates", balances.entrySet(),
+            rows -> walletRepository.updateBalances(balances),
+            row -> walletRepository.updateBalance(row.getKey(), row.getValue()));
+        batches.incrementAndGet();
+    }
+
+    /**
+     * Writes rows in bulk; if the bulk write fails, retries row by row so one bad row
+     * does not lose the others. Bulk writes commit per batch, so some rows may already
+     * be in: the row-by-row writes are idempotent (inserts skip existing keys).
+     */
+    private <E> void write(String what, Collection<E> rows, BulkWrite<E> bulk, RowWrite<E> single) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            bulk.write(rows);
+            rowsWritten.addAndGet(rows.size());
+            return;
+        } catch (SQLException e) {
+            LoggerUtil.logWarning("Write-behind " + what + " failed in bulk, retrying row by row: " + e.getMessage());
+        }
+
+        for (E row : rows) {
+            try {
+                single.write(row);
+                rowsWritten.incrementAndGet();
+            } catch (SQLException e) {
+                failed.incrementAndGet();
+                LoggerUtil.logError("Write-behind " + what + " lost a row", e);
+            }
+        }
+    }
+
+    // ===== METRICS =====
+
+    public int getQueueSize() { return queue.size(); }
+    public long getRowsWritten() { return rowsWritten.get(); }
+    public long getBatchCount() { return batches.get(); }
+    public long getCoalescedCount() { return coalesced.get(); }
+    public long getFailedCount() { return failed.get(); }
+    public long getBackpressureWaits() { return backpressureWaits.get(); }
+
+    public double getBackpressureMillis() {
+        return backpressureNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Write-behind metrics summary
+     */
+    public String getStats() {
+        return String.format("Write-behind: %d queued | %d rows written in %d batches, %d coalesced | " +
+            "%d failed | %d producer waits (%.1f ms)",
+            queue.size(), rowsWritten.get(), batches.get(), coalesced.get(),
+            failed.get(), backpressureWaits.get(), getBackpressureMillis());
+    }
+}
@@ -0,0 +1,348 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool
+ * Connections are handed out behind a proxy whose close() returns them to the pool,
+ * so repositories keep using try-with-resources unchanged.
+ * Idle connections are reused most-recently-used first; the ones left at the tail
+ * are closed once idle longer than the idle timeout (never below the minimum size).
+ * Each physical connection keeps an LRU cache of its prepared statements.
+ */
+public class ConnectionPool {
+
+    // Connections idle for less than this are handed out without a round trip
+    private static final long VALIDATION_INTERVAL_MILLIS = 30_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private static final class PooledConnection {
+        final Connection raw;
+        final StatementCache statements;
+        volatile long lastUsed;
+
+        PooledConnection(Connection raw, StatementCache statements) {
+            this.raw = raw;
+            this.statements = statements;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final int statementCacheSize;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long acquireTimeoutMillis;
+
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    // Metrics
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong statementEvictions = new AtomicLong();
+
+    /**
+     * @param url JDBC URL
+     * @param connectionProperties Driver properties (user, password, prepareThreshold...)
+     * @param statementCacheSize Prepared statements cached per connection (0 disables the cache)
+     */
+    public ConnectionPool(String url, Properties connectionProperties, int minSize, int maxSize,
+                          long idleTimeoutMillis, long acquireTimeoutMillis, int statementCacheSize) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.connectionProperties = connectionProperties;
+        this.statementCacheSize = statementCacheSize;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens connections up to the minimum size
+     * @throws SQLException if the database cannot be reached
+     */
+    public void prefill() throws SQLException {
+        while (total.get() < minSize) {
+            idle.offerLast(open());
+        }
+    }
+
+    /**
+     * Borrows a connection; closing it returns it to the pool
+     * @return A pooled connection
+     * @throws SQLException if none becomes available within the acquire timeout
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTimeoutException(String.format(
+                    "No database connection available after %d ms (%d active / %d max)",
+                    acquireTimeoutMillis, active.get(), maxSize));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null && !isUsable(pooled)) {
+                discard(pooled);
+            }
+            if (pooled == null) {
+                pooled = open();
+            }
+            active.incrementAndGet();
+            acquisitions.incrementAndGet();
+            return lease(pooled);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes idle connections and refuses new borrows; borrowed ones are closed when returned
+     */
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    // ===== METRICS =====
+
+    public int getActiveCount() { return active.get(); }
+    public int getIdleCount() { return idle.size(); }
+    public int getTotalCount() { return total.get(); }
+    public int getMaxSize() { return maxSize; }
+    public long getAcquisitionCount() { return acquisitions.get(); }
+    public long getTimeoutCount() { return timeouts.get(); }
+    public long getCreatedCount() { return created.get(); }
+    public long getEvictedCount() { return evicted.get(); }
+    public long getStatementCacheHits() { return statementHits.get(); }
+    public long getStatementCacheMisses() { return statementMisses.get(); }
+    public long getStatementCacheEvictions() { return statementEvictions.get(); }
+
+    public double getStatementCacheHitRatio() {
+        long lookups = statementHits.get() + statementMisses.get();
+        return lookups == 0 ? 0.0 : (double) statementHits.get() / lookups;
+    }
+
+    public double getAverageWaitMillis() {
+        long count = acquisitions.get();
+        return count == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Pool metrics summary
+     */
+    public String getStats() {
+        return String.format(
+            "Pool: %d active, %d idle (%d/%d open) | %d acquisitions, wait avg %.2f ms / max %.2f ms | " +
+            "%d timeouts | %d opened, %d evicted%n" +
+            "Statement cache: %d hits, %d misses (%.1f%% hit), %d evictions",
+            active.get(), idle.size(), total.get(), maxSize, acquisitions.get(),
+            getAverageWaitMillis(), getMaxWaitMillis(), timeouts.get(), created.get(), evicted.get(),
+            statementHits.get(), statementMisses.get(), getStatementCacheHitRatio() * 100,
+            statementEvictions.get());
+    }
+
+    // ===== INTERNALS =====
+
+    private PooledConnection open() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, connectionProperties);
+        total.incrementAndGet();
+        created.incrementAndGet();
+        StatementCache statements = statementCacheSize > 0
+            ? new StatementCache(raw, statementCacheSize, statementHits, statementMisses, statementEvictions)
+            : null;
+        return new PooledConnection(raw, statements);
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.raw.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.lastUsed < VALIDATION_INTERVAL_MILLIS) {
+                return true;
+            }
+            return pooled.raw.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        total.decrementAndGet();
+        try {
+            pooled.raw.close();
+        } catch (SQLException e) {
+            LoggerUtil.logWarning("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        active.decrementAndGet();
+        try {
+            if (closed || pooled.raw.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            // Leave no transaction open for the next borrower
+            if (!pooled.raw.getAutoCommit()) {
+                pooled.raw.rollback();
+                pooled.raw.setAutoCommit(true);
+            }
+            if (pooled.statements != null) {
+                pooled.statements.reset();
+            }
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && total.get() > minSize) {
+            PooledConnection pooled = oldestFirst.next();
+            if (now - pooled.lastUsed < idleTimeoutMillis) {
+                break;
+            }
+            // Skip it if a borrower took it in the meantime
+            if (idle.removeFirstOccurrence(pooled)) {
+                discard(pooled);
+                evicted.incrementAndGet();
+            }
+        }
+        try {
+            prefill();
+        } catch (SQLException e) {
+            LoggerUtil.logWarning("Unable to refill connection pool: " + e.getMessage());
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        long max;
+        while (nanos > (max = maxWaitNanos.get()) && !maxWaitNanos.compareAndSet(max, nanos)) {
+            // retry
+        }
+    }
+
+    private Connection lease(PooledConnection pooled) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new LeaseHandler(pooled));
+    }
+
+    /**
+     * Forwards calls to the physical connection until the lease is closed
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || pooled.raw.isClosed();
+                case "prepareStatement":
+                    if (args.length == 1 && pooled.statements != null && !returned.get()) {
+                        return pooled.statements.prepare((String) args[0], (Connection) proxy);
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.raw;
+                default:
+                    break;
+            }
+            if (returned.get()) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            try {
+                return method.invoke(pooled.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package util;
 
 import model.Transaction;
+import model.Wallet;
+import enums.CryptoType;
 import enums.FeeLevel;
+import repository.Page;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
@@ -102,6 +105,8 @@ public class ConsolePrinter {
         System.out.println("5️⃣  View mempool state");
         System.out.println("6️⃣  Display my wallets");
         System.out.println("7️⃣  Global statistics");
+        System.out.println("8️⃣  Browse transaction history");
+        System.out.println("9️⃣  Transfer between my wallets");
         System.out.println("0️⃣  Quit");
         
         printSeparator();
@@ -150,12 +155,16 @@ public class ConsolePrinter {
     }
     
     /**
-     * Displays mempool state with transactions
+     * Displays the mempool state of one chain
+     * Fees and ranks of different chains are not comparable, so each chain gets its own table.
+     * @param transactions Highest-priority transactions of the chain, in order: the first one has rank 1
+     * @param pendingCount Size of the chain's mempool
      */
-    public static void printMempoolState(List<Transaction> transactions, String myTransactionId) {
-        printSubTitle("📊 Current Mempool State");
+    public static void printMempoolState(CryptoType type, List<Transaction> transactions, int pendingCount,
+                                         String myTransactionId) {
+        printSubTitle("📊 " + type + " Mempool (" + type.getSymbol() + ")");
         
-        System.out.println("Pending transactions: " + transactions.size() + "\n");
+        System.out.println("Pending transactions: " + pendingCount + "\n");
         
         if (transactions.isEmpty()) {
             printInfo("Mempool is empty");
@@ -163,40 +172,112 @@ public class ConsolePrinter {
         }
         
         // Header
-        System.out.println(TOP_LEFT + repeat(HORIZONTAL, 20) + T_DOWN + repeat(HORIZONTAL, 12) + T_DOWN + 
-                          repeat(HORIZONTAL, 15) + T_DOWN + repeat(HORIZONTAL, 12) + TOP_RIGHT);
-        System.out.println(VERTICAL + centerText("Transaction", 20) + VERTICAL + 
+        System.out.println(TOP_LEFT + repeat(HORIZONTAL, 8) + T_DOWN + repeat(HORIZONTAL, 20) + T_DOWN + 
+                          repeat(HORIZONTAL, 12) + T_DOWN + repeat(HORIZONTAL, 15) + T_DOWN + 
+                          repeat(HORIZONTAL, 12) + TOP_RIGHT);
+        System.out.println(VERTICAL + centerText("Rank", 8) + VERTICAL + 
+                          centerText("Transaction", 20) + VERTICAL + 
                           centerText("Type", 12) + VERTICAL +
                           centerText("Fees", 15) + VERTICAL +
                           centerText("Level", 12) + VERTICAL);
-        System.out.println(T_RIGHT + repeat(HORIZONTAL, 20) + CROSS + repeat(HORIZONTAL, 12) + CROSS + 
-                          repeat(HORIZONTAL, 15) + CROSS + repeat(HORIZONTAL, 12) + T_LEFT);
+        System.out.println(T_RIGHT + repeat(HORIZONTAL, 8) + CROSS + repeat(HORIZONTAL, 20) + CROSS + 
+                          repeat(HORIZONTAL, 12) + CROSS + repeat(HORIZONTAL, 15) + CROSS + 
+                          repeat(HORIZONTAL, 12) + T_LEFT);
         
-        // Display top 10 transactions
-        int count = 0;
+        int rank = 0;
         for (Transaction tx : transactions) {
-            if (count >= 10) break;
-            
+            rank++;
             String txDisplay = tx.getId().equals(myTransactionId) ? 
                               ">>> " + tx.getShortId() + " <<<" : tx.getShortId() + " (anonymous)";
             
             String marker = tx.getId().equals(myTransactionId) ? " ← YOU" : "";
             
             System.out.println(VERTICAL + 
+                padRight(String.valueOf(rank), 8) + VERTICAL +
                 padRight(txDisplay, 20) + VERTICAL +
                 padRight(tx.getType().getSymbol(), 12) + VERTICAL +
                 padRight(String.format("%.8f", tx.getFees()), 15) + VERTICAL +
                 padRight(tx.getFeeLevel().name(), 12) + VERTICAL + marker);
-            
-            count++;
         }
         
         // Footer
-        System.out.println(BOTTOM_LEFT + repeat(HORIZONTAL, 20) + T_UP + repeat(HORIZONTAL, 12) + T_UP + 
+        System.out.println(BOTTOM_LEFT + repeat(HORIZONTAL, 8) + T_UP + repeat(HORIZONTAL, 20) + T_UP + 
+                          repeat(HORIZONTAL, 12) + T_UP + repeat(HORIZONTAL, 15) + T_UP + 
+                          repeat(HORIZONTAL, 12) + BOTTOM_RIGHT);
+        
+        if (pendingCount > transactions.size()) {
+            System.out.println("\n... and " + (pendingCount - transactions.size()) + " other transactions");
+        }
+        System.out.println("Rank = position in the " + type.getSymbol() + " mempool only");
+    }
+    
+    /**
+     * Displays one page of transaction history
+     * @param pageNumber 1-based page number
+     */
+    public static void printTransactionPage(Page<Transaction> page, int pageNumber) {
+        printSubTitle("📜 Transaction History - page " + pageNumber);
+        
+        if (page.isEmpty()) {
+            printInfo("No transactions");
+            return;
+        }
+        
+        // Header
+        System.out.println(TOP_LEFT + repeat(HORIZONTAL, 12) + T_DOWN + repeat(HORIZONTAL, 21) + T_DOWN + 
+                          repeat(HORIZONTAL, 8) + T_DOWN + repeat(HORIZONTAL, 15) + T_DOWN + 
+                          repeat(HORIZONTAL, 15) + T_DOWN + repeat(HORIZONTAL, 12) + TOP_RIGHT);
+        System.out.println(VERTICAL + centerText("Transaction", 12) + VERTICAL + 
+                          centerText("Created", 21) + VERTICAL + 
+                          centerText("Type", 8) + VERTICAL +
+                          centerText("Amount", 15) + VERTICAL +
+                          centerText("Fees", 15) + VERTICAL +
+                          centerText("Status", 12) + VERTICAL);
+        System.out.println(T_RIGHT + repeat(HORIZONTAL, 12) + CROSS + repeat(HORIZONTAL, 21) + CROSS + 
+                          repeat(HORIZONTAL, 8) + CROSS + repeat(HORIZONTAL, 15) + CROSS + 
+                          repeat(HORIZONTAL, 15) + CROSS + repeat(HORIZONTAL, 12) + T_LEFT);
+        
+        for (Transaction tx : page.getItems()) {
+            System.out.println(VERTICAL + 
+                padRight(tx.getShortId(), 12) + VERTICAL +
+                padRight(tx.getCreatedAt().withNano(0).toString().replace('T', ' '), 21) + VERTICAL +
+                padRight(tx.getType().getSymbol(), 8) + VERTICAL +
+                padRight(String.format("%.8f", tx.getAmount()), 15) + VERTICAL +
+                padRight(String.format("%.8f", tx.getFees()), 15) + VERTICAL +
+                padRight(tx.getStatus().name(), 12) + VERTICAL);
+        }
+        
+        // Footer
+        System.out.println(BOTTOM_LEFT + repeat(HORIZONTAL, 12) + T_UP + repeat(HORIZONTAL, 21) + T_UP + 
+                          repeat(HORIZONTAL, 8) + T_UP + repeat(HORIZONTAL, 15) + T_UP + 
                           repeat(HORIZONTAL, 15) + T_UP + repeat(HORIZONTAL, 12) + BOTTOM_RIGHT);
         
-        if (transactions.size() > 10) {
-            System.out.println("\n... and " + (transactions.size() - 10) + " other transactions");
+        if (!page.hasNext()) {
+            System.out.println("\n(end of history)");
+        }
+    }
+    
+    /**
+     * Displays one page of wallets
+     * @param pageNumber 1-based page number
+     */
+    public static void printWalletPage(Page<Wallet> page, int pageNumber) {
+        printSubTitle("💼 Wallets - page " + pageNumber);
+        
+        if (page.isEmpty()) {
+            printInfo("No wallets");
+            return;
+        }
+        
+        for (Wallet w : page.getItems()) {
+            System.out.println(w.getType() + " Wallet");
+            System.out.println("   Address: " + w.getAddress());
+            System.out.println("   Balance: " + w.getBalance() + " " + w.getType().getSymbol());
+            System.out.println("   Created: " + w.getCreatedAt());
+        }
+        
+        if (!page.hasNext()) {
+            System.out.println("\n(end of list)");
         }
     }
     
@@ -3,29 +3,49 @@ package util;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Properties;
 
 public class DatabaseConnection {
 
     // Singleton instance
     private static DatabaseConnection instance;
 
-    // Database connection object
-    private Connection connection;
+    // Pool of physical connections
+    private final ConnectionPool pool;
 
     // Database credentials
     private static final String URL = EnvLoader.get("DB_URL");
     private static final String USER = EnvLoader.get("DB_USER");
     private static final String PASSWORD = EnvLoader.get("DB_PASSWORD");
 
+    // Pool settings
+    private static final int POOL_MIN_SIZE = Integer.parseInt(EnvLoader.get("DB_POOL_MIN_SIZE", "2"));
+    private static final int POOL_MAX_SIZE = Integer.parseInt(EnvLoader.get("DB_POOL_MAX_SIZE", "10"));
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.parseLong(EnvLoader.get("DB_POOL_IDLE_TIMEOUT_MS", "300000"));
+    private static final long POOL_ACQUIRE_TIMEOUT_MS = Long.parseLong(EnvLoader.get("DB_POOL_ACQUIRE_TIMEOUT_MS", "5000"));
+
+    // Prepared statements cached per connection; cached statements are reused, so the driver
+    // can switch them to server-side prepared statements from the first execution
+    private static final int STATEMENT_CACHE_SIZE = Integer.parseInt(EnvLoader.get("DB_STATEMENT_CACHE_SIZE", "64"));
+    private static final String PREPARE_THRESHOLD = EnvLoader.get("DB_PREPARE_THRESHOLD", "1");
+
     // Private constructor for Singleton
     private DatabaseConnection() {
         try {
             // Load PostgreSQL driver
             Class.forName("org.postgresql.Driver");
 
-            // Establish connection
-            this.connection = DriverManager.getConnection(URL, USER, PASSWORD);
-            LoggerUtil.logInfo("✅ Successfully connected to PostgreSQL");
+            // Open the pool
+            Properties properties = new Properties();
+            properties.setProperty("user", USER);
+            properties.setProperty("password", PASSWORD);
+            properties.setProperty("prepareThreshold", PREPARE_THRESHOLD);
+
+            this.pool = new ConnectionPool(URL, properties, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                POOL_IDLE_TIMEOUT_MS, POOL_ACQUIRE_TIMEOUT_MS, STATEMENT_CACHE_SIZE);
+            pool.prefill();
+            LoggerUtil.logInfo(String.format("✅ Successfully connected to PostgreSQL (pool %d-%d)",
+                POOL_MIN_SIZE, POOL_MAX_SIZE));
 
         } catch (ClassNotFoundException e) {
             LoggerUtil.logError("❌ PostgreSQL Driver not found", e);
@@ -45,33 +65,26 @@ public class DatabaseConnection {
         return instance;
     }
 
-    // Get database connection
+    // Borrow a pooled connection (close() returns it to the pool)
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            LoggerUtil.logWarning("⚠️ Connection closed, reconnecting...");
-            connection = DriverManager.getConnection(URL, USER, PASSWORD);
-            LoggerUtil.logInfo("✅ Reconnection successful");
-        }
-        return connection;
+        return pool.getConnection();
     }
 
-    // Close the connection
+    // Close all pooled connections
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                LoggerUtil.logInfo("🔌 PostgreSQL connection closed");
-            } catch (SQLException e) {
-                LoggerUtil.logError("❌ Error while closing the connection", e);
-            }
-        }
+        pool.close();
+        LoggerUtil.logInfo("🔌 PostgreSQL connection pool closed");
+    }
+
+    // Get the connection pool (metrics)
+    public ConnectionPool getPool() {
+        return pool;
     }
 
-    // Test if connection is valid
+    // Test if a connection can be borrowed and is valid
     public boolean testConnection() {
-        try {
-            Connection conn = getConnection();
-            return conn != null && !conn.isClosed();
+        try (Connection conn = getConnection()) {
+            return conn.isValid(2);
         } catch (SQLException e) {
             LoggerUtil.logError("❌ Connection test failed", e);
             return false;
@@ -36,6 +36,14 @@ public class LoggerUtil {
         }
     }
 
+    /**
+     * Changes the level of the application logger (benchmarks raise it to WARNING
+     * so that per-transaction INFO lines do not dominate the measurements)
+     */
+    public static void setLevel(Level level) {
+        logger.setLevel(level);
+    }
+
     // Utility methods
     public static void logInfo(String message) {
         logger.info(message); 
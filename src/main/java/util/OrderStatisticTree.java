@@ -0,0 +1,303 @@
+package util;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted set backed by a size-augmented treap
+ * Insert, remove, rank and select all run in O(log n) expected time;
+ * first() and last() are cached and answer in O(1)
+ * @param <E> The element type
+ */
+public class OrderStatisticTree<E> extends AbstractSet<E> {
+
+    private static final class Node<E> {
+        final E value;
+        final int priority;
+        int size = 1;
+        Node<E> left;
+        Node<E> right;
+
+        Node(E value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    private final Comparator<? super E> comparator;
+    private Node<E> root;
+    private Node<E> lowest;
+    private Node<E> highest;
+    private int seed = 0x2545F491;
+
+    public OrderStatisticTree(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public boolean add(E value) {
+        if (contains(value)) {
+            return false;
+        }
+        Node<E> created = new Node<>(value, nextPriority());
+        root = insert(root, created);
+        if (lowest == null || comparator.compare(value, lowest.value) < 0) {
+            lowest = created;
+        }
+        if (highest == null || comparator.compare(value, highest.value) > 0) {
+            highest = created;
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object value) {
+        if (!contains(value)) {
+            return false;
+        }
+        root = delete(root, (E) value);
+        refreshBounds();
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object value) {
+        return rank((E) value) >= 0;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        lowest = null;
+        highest = null;
+    }
+
+    /**
+     * Zero-based index of an element in sort order
+     * @param value The element to locate
+     * @return The index, or -1 if the element is not in the tree
+     */
+    public int rank(E value) {
+        int before = 0;
+        Node<E> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                before += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return before + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Element at a zero-based index in sort order
+     * @param index The index
+     * @return The element
+     */
+    public E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    public E first() {
+        if (lowest == null) {
+            throw new NoSuchElementException();
+        }
+        return lowest.value;
+    }
+
+    public E last() {
+        if (highest == null) {
+            throw new NoSuchElementException();
+        }
+        return highest.value;
+    }
+
+    /**
+     * Removes and returns the lowest element
+     * @return The element, or null if the tree is empty
+     */
+    public E pollFirst() {
+        if (root == null) {
+            return null;
+        }
+        E value = first();
+        root = delete(root, value);
+        refreshBounds();
+        return value;
+    }
+
+    /**
+     * Removes and returns the highest element
+     * @return The element, or null if the tree is empty
+     */
+    public E pollLast() {
+        if (root == null) {
+            return null;
+        }
+        E value = last();
+        root = delete(root, value);
+        refreshBounds();
+        return value;
+    }
+
+    /**
+     * In-order iterator; the tree must not be modified while iterating
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private final Deque<Node<E>> stack = new ArrayDeque<>();
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node<E> node) {
+                while (node != null) {
+                    stack.push(node);
+                    node = node.left;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<E> node = stack.pop();
+                pushLeft(node.right);
+                return node.value;
+            }
+        };
+    }
+
+    // ===== TREAP OPERATIONS =====
+
+    private Node<E> insert(Node<E> node, Node<E> created) {
+        if (node == null) {
+            return created;
+        }
+        if (comparator.compare(created.value, node.value) < 0) {
+            node.left = insert(node.left, created);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, created);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<E> delete(Node<E> node, E value) {
+        int cmp = comparator.compare(value, node.value);
+        if (cmp < 0) {
+            node.left = delete(node.left, value);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, value);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node<E> rotateRight(Node<E> node) {
+        Node<E> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<E> rotateLeft(Node<E> node) {
+        Node<E> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void refreshBounds() {
+        lowest = root;
+        highest = root;
+        if (root == null) {
+            return;
+        }
+        while (lowest.left != null) {
+            lowest = lowest.left;
+        }
+        while (highest.right != null) {
+            highest = highest.right;
+        }
+    }
+
+    private static <E> int size(Node<E> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static <E> void update(Node<E> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    // xorshift32: cheap, deterministic priorities are enough to keep the treap balanced
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+}
@@ -0,0 +1,189 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text
+ * Callers get a proxy whose close() clears the parameters and keeps the statement
+ * open for the next borrower of the connection. Only used by one lease at a time.
+ * Each hand-out bumps the entry's generation, so a proxy kept past close() or past
+ * the end of its lease fails instead of driving another borrower's statement.
+ */
+final class StatementCache {
+
+    private static final class CachedStatement {
+        final String sql;
+        final PreparedStatement statement;
+        boolean inUse;
+        boolean evicted;
+        // Generation of the proxy currently allowed to use the statement
+        volatile long generation;
+
+        CachedStatement(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+    }
+
+    private final Connection raw;
+    private final Map<String, CachedStatement> entries;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    StatementCache(Connection raw, int capacity, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.raw = raw;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.entries = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                evict(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached statement for this SQL, preparing it on a miss
+     * @param sql The SQL text
+     * @param owner The connection proxy reported by getConnection()
+     * @return A statement proxy to close after use
+     */
+    PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+        CachedStatement entry = entries.get(sql);
+        if (entry != null && !entry.inUse) {
+            hits.incrementAndGet();
+            entry.inUse = true;
+            return wrap(entry, owner);
+        }
+
+        misses.incrementAndGet();
+        if (entry != null) {
+            // Same SQL already open in this lease (nested use): hand out an uncached statement
+            return raw.prepareStatement(sql);
+        }
+        entry = new CachedStatement(sql, raw.prepareStatement(sql));
+        entry.inUse = true;
+        entries.put(sql, entry);
+        return wrap(entry, owner);
+    }
+
+    /**
+     * Frees statements left open by the previous lease
+     */
+    void reset() {
+        Iterator<CachedStatement> it = entries.values().iterator();
+        while (it.hasNext()) {
+            CachedStatement entry = it.next();
+            if (entry.inUse && !recycle(entry)) {
+                it.remove();
+            }
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(CachedStatement entry) {
+        evictions.incrementAndGet();
+        entry.evicted = true;
+        if (!entry.inUse) {
+            closeQuietly(entry);
+        }
+    }
+
+    private void giveBack(CachedStatement entry) {
+        if (entry.evicted) {
+            entry.generation++;
+            entry.inUse = false;
+            closeQuietly(entry);
+        } else if (!recycle(entry)) {
+            entries.remove(entry.sql);
+        }
+    }
+
+    private boolean recycle(CachedStatement entry) {
+        // Outstanding proxies of the previous lease are invalid from here on
+        entry.generation++;
+        try {
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+            entry.inUse = false;
+            return true;
+        } catch (SQLException e) {
+            closeQuietly(entry);
+            return false;
+        }
+    }
+
+    private static void closeQuietly(CachedStatement entry) {
+        try {
+            entry.statement.close();
+        } catch (SQLException e) {
+            LoggerUtil.logWarning("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    private PreparedStatement wrap(CachedStatement entry, Connection owner) {
+        long generation = entry.generation;
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean returned;
+
+            // Closed by its holder, or recycled under it by reset()/eviction
+            private boolean released() {
+                return returned || entry.generation != generation;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!released()) {
+                            returned = true;
+                            giveBack(entry);
+                        }
+                        return null;
+                    case "isClosed":
+                        return released() || entry.statement.isClosed();
+                    case "getConnection":
+                        return owner;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Cached" + entry.statement;
+                    default:
+                        if (released()) {
+                            throw new SQLException("Statement is closed");
+                        }
+                        try {
+                            return method.invoke(entry.statement, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                }
+            }
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(),
+            new Class<?>[] { PreparedStatement.class },
+            handler);
+    }
+}
@@ -1,17 +1,73 @@
 package util;
 
+import java.security.SecureRandom;
 import java.util.UUID;
 
+/**
+ * Identifier generation
+ * Ids are time-ordered UUIDv7 (RFC 9562): 48-bit Unix millisecond timestamp,
+ * 12-bit sequence within the millisecond, 62 random bits. Successive ids sort
+ * in creation order, so primary key inserts append to the right of the index.
+ */
 public class UUIDGenerator {
 
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int SEQUENCE_MASK = 0xFFF;
+
+    // Guarded by the class lock: keeps ids strictly increasing within this process
+    private static long lastMillis;
+    private static int sequence;
+
     public static String generate() {
-        return UUID.randomUUID().toString();
+        return generateUuid().toString();
+    }
+
+    /**
+     * Time-ordered UUIDv7 in binary form
+     */
+    public static UUID generateUuid() {
+        long millis;
+        int seq;
+        synchronized (UUIDGenerator.class) {
+            millis = Math.max(System.currentTimeMillis(), lastMillis);
+            if (millis == lastMillis) {
+                sequence = (sequence + 1) & SEQUENCE_MASK;
+                if (sequence == 0) {
+                    // 4096 ids in one millisecond: borrow the next one
+                    millis++;
+                }
+            } else {
+                sequence = 0;
+            }
+            lastMillis = millis;
+            seq = sequence;
+        }
+
+        long msb = (millis << 16) | 0x7000L | seq;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
     }
 
     public static String generateShort() {
         return UUID.randomUUID().toString().substring(0, 8);
     }
 
+    /**
+     * Short display form of an id
+     * Uses the random tail: the head of a UUIDv7 is its timestamp, shared by ids created together.
+     */
+    public static String shortId(String id) {
+        return id.length() <= 8 ? id : id.substring(id.length() - 8);
+    }
+
+    /**
+     * Binary form of an id, as bound to uuid columns
+     * @throws IllegalArgumentException if the id is not a UUID
+     */
+    public static UUID toUuid(String id) {
+        return UUID.fromString(id);
+    }
+
     public static boolean isValidUUID(String uuid) {
         try {
             UUID.fromString(uuid);
@@ -20,4 +76,4 @@ public class UUIDGenerator {
             return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package repository;
+
+import util.DatabaseConnection;
+import util.LoggerUtil;
+import util.UUIDGenerator;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Insert throughput and primary key size per id scheme, against the configured
+ * PostgreSQL database (.env)
+ * Inserts the same number of rows into session-local temporary tables keyed by
+ * random v4 UUIDs in VARCHAR(36) (the previous scheme), random v4 UUIDs in a native
+ * uuid column, and time-ordered v7 UUIDs in a native uuid column (the current
+ * scheme, util.UUIDGenerator). Reports rows per second and the size of each
+ * primary key index. Use enough rows for the index to outgrow shared_buffers,
+ * otherwise random inserts never pay for their scattered page writes.
+ *
+ * Usage: java -cp out:lib/* repository.IdInsertBenchmark [rows] [batch size]
+ */
+public class IdInsertBenchmark {
+
+    public static void main(String[] args) throws SQLException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        LoggerUtil.setLevel(Level.WARNING);
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            System.out.printf("%d rows, batches of %d%n", rows, batchSize);
+            System.out.printf("%-22s %12s %14s %14s%n", "id scheme", "ms", "rows/s", "pk index MB");
+            run(conn, "v4 VARCHAR(36)", "bench_ids_v4_text", "VARCHAR(36)",
+                () -> UUID.randomUUID().toString(), rows, batchSize);
+            run(conn, "v4 uuid", "bench_ids_v4_uuid", "UUID", UUID::randomUUID, rows, batchSize);
+            run(conn, "v7 uuid", "bench_ids_v7_uuid", "UUID", UUIDGenerator::generateUuid, rows, batchSize);
+        } finally {
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+
+    private static void run(Connection conn, String label, String table, String idType, Supplier<Object> ids,
+                            int rows, int batchSize) throws SQLException {
+        try (Statement ddl = conn.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS " + table);
+            // Same row shape as the head of transactions: id, created_at and a payload
+            ddl.execute("CREATE TEMPORARY TABLE " + table + " (" +
+                        "id " + idType + " NOT NULL, " +
+                        "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                        "amount DECIMAL(20, 8) NOT NULL, " +
+                        "CONSTRAINT " + table + "_pkey PRIMARY KEY (id))");
+        }
+
+        long start = System.nanoTime();
+        conn.setAutoCommit(false);
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO " + table + " (id, amount) VALUES (?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setDouble(2, i * 0.00000001);
+                insert.addBatch();
+                if (i % batchSize == 0 || i == rows) {
+                    insert.executeBatch();
+                    conn.commit();
+                }
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long indexBytes;
+        try (PreparedStatement size = conn.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+            size.setString(1, table + "_pkey");
+            try (ResultSet rs = size.executeQuery()) {
+                rs.next();
+                indexBytes = rs.getLong(1);
+            }
+        }
+        try (Statement ddl = conn.createStatement()) {
+            ddl.execute("DROP TABLE " + table);
+        }
+
+        System.out.printf("%-22s %12d %14.0f %14.1f%n", label,
+            elapsed / 1_000_000, rows * 1e9 / elapsed, indexBytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,100 @@
+package repository;
+
+import model.Transaction;
+import enums.CryptoType;
+import enums.FeeLevel;
+import enums.TransactionStatus;
+import util.DatabaseConnection;
+import util.LoggerUtil;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.Level;
+
+/**
+ * Row mapping benchmark against the configured PostgreSQL database (.env)
+ * Reads the same transactions with the previous query shape (SELECT *, columns
+ * looked up by name on every row) and with the current one (explicit COLUMNS,
+ * TransactionRepository.ROW_MAPPER reading by position), alternating rounds so
+ * that both see the same cache state. Needs existing rows in transactions:
+ * create some from the application first.
+ *
+ * Usage: java -cp out:lib/* repository.RowMappingBenchmark [rows] [rounds]
+ */
+public class RowMappingBenchmark {
+
+    // The mapping used before COLUMNS / ROW_MAPPER, kept here for the comparison
+    private static final RowMapper<Transaction> BY_NAME = rs -> new Transaction(
+        rs.getString("id"),
+        rs.getString("from_address"),
+        rs.getString("to_address"),
+        rs.getDouble("amount"),
+        CryptoType.valueOf(rs.getString("crypto_type")),
+        FeeLevel.valueOf(rs.getString("fee_level")),
+        rs.getDouble("fees"),
+        TransactionStatus.valueOf(rs.getString("status")),
+        rs.getTimestamp("created_at").toLocalDateTime()
+    );
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String[] args) throws SQLException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        LoggerUtil.setLevel(Level.WARNING);
+
+        String byNameSql = "SELECT * FROM transactions ORDER BY created_at DESC, id DESC LIMIT ?";
+        String byPositionSql = "SELECT " + TransactionRepository.COLUMNS + " FROM transactions " +
+                               "ORDER BY created_at DESC, id DESC LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            int read = read(conn, byPositionSql, TransactionRepository.ROW_MAPPER, rows);
+            if (read == 0) {
+                System.out.println("No transactions to read: create some from the application first");
+                System.exit(1);
+            }
+
+            long byNameNanos = 0;
+            long byPositionNanos = 0;
+            for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+                long start = System.nanoTime();
+                read(conn, byNameSql, BY_NAME, rows);
+                long middle = System.nanoTime();
+                read(conn, byPositionSql, TransactionRepository.ROW_MAPPER, rows);
+                long end = System.nanoTime();
+                if (round >= WARMUP_ROUNDS) {
+                    byNameNanos += middle - start;
+                    byPositionNanos += end - middle;
+                }
+            }
+
+            System.out.printf("%d rows per round, %d rounds%n", read, rounds);
+            System.out.printf("%-32s %12s %14s%n", "query / mapping", "ms/round", "rows/s");
+            print("SELECT * / by name", byNameNanos, rounds, read);
+            print("SELECT COLUMNS / by position", byPositionNanos, rounds, read);
+            System.out.printf("by position is %.2fx the speed of by name%n", (double) byNameNanos / byPositionNanos);
+        } finally {
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+
+    private static int read(Connection conn, String sql, RowMapper<Transaction> mapper, int rows) throws SQLException {
+        int read = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, rows);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    mapper.map(rs);
+                    read++;
+                }
+            }
+        }
+        return read;
+    }
+
+    private static void print(String label, long nanos, int rounds, int rows) {
+        double perRound = (double) nanos / rounds;
+        System.out.printf("%-32s %12.2f %14.0f%n", label, perRound / 1e6, rows * 1e9 / perRound);
+    }
+}
@@ -0,0 +1,155 @@
+package service;
+
+import model.Mempool;
+import model.Transaction;
+import enums.CryptoType;
+import enums.FeeLevel;
+import enums.TransactionStatus;
+import util.LoggerUtil;
+import util.UUIDGenerator;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Level;
+
+/**
+ * Before/after benchmark of the fee-ordered mempool (no database needed)
+ * Runs the same workload against model.Mempool (ordered tree) and against the
+ * previous list implementation, which re-sorted an ArrayList on every add and
+ * position lookup: add every transaction, look up positions, read the top of the
+ * pool, then drain it by blocks. Each phase is timed separately.
+ *
+ * Usage: java -cp out:lib/* service.MempoolBenchmark [transactions] [top-K]
+ */
+public class MempoolBenchmark {
+
+    private static final int LOOKUPS = 2000;
+    private static final int TOP_READS = 2000;
+
+    /**
+     * The list-based mempool this replaces, without its logging
+     */
+    static final class ListMempool {
+
+        private final List<Transaction> transactions = new ArrayList<>();
+
+        void addTransaction(Transaction transaction) {
+            transactions.add(transaction);
+            sortTransactionsByFees();
+            // The old addTransaction logged the position, which sorted again
+            getPosition(transaction);
+        }
+
+        boolean removeTransaction(Transaction transaction) {
+            return transactions.remove(transaction);
+        }
+
+        int getPosition(Transaction transaction) {
+            sortTransactionsByFees();
+            return transactions.indexOf(transaction) + 1;
+        }
+
+        List<Transaction> getTransactionsByFees() {
+            sortTransactionsByFees();
+            return new ArrayList<>(transactions);
+        }
+
+        int size() {
+            return transactions.size();
+        }
+
+        private void sortTransactionsByFees() {
+            transactions.sort((t1, t2) -> Double.compare(t2.getFees(), t1.getFees()));
+        }
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int topK = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        LoggerUtil.setLevel(Level.WARNING);
+
+        // Warm-up on a smaller pool so that both variants run compiled code
+        run(generate(Math.max(1, count / 10), 1), topK, false);
+        run(generate(count, 42), topK, true);
+    }
+
+    private static void run(List<Transaction> transactions, int topK, boolean print) {
+        Random random = new Random(7);
+        List<Transaction> lookups = new ArrayList<>();
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups.add(transactions.get(random.nextInt(transactions.size())));
+        }
+
+        // Ordered tree
+        Mempool tree = new Mempool();
+        long addTree = time(() -> transactions.forEach(tree::addTransaction));
+        long positionTree = time(() -> lookups.forEach(tree::getPosition));
+        long topTree = time(() -> {
+            for (int i = 0; i < TOP_READS; i++) {
+                tree.getTopTransactions(topK);
+            }
+        });
+        long drainTree = time(() -> {
+            while (!tree.isEmpty()) {
+                tree.pollTopTransactions(topK);
+            }
+        });
+
+        // Sorted list
+        ListMempool list = new ListMempool();
+        long addList = time(() -> transactions.forEach(list::addTransaction));
+        long positionList = time(() -> lookups.forEach(list::getPosition));
+        long topList = time(() -> {
+            for (int i = 0; i < TOP_READS; i++) {
+                list.getTransactionsByFees().subList(0, Math.min(topK, list.size()));
+            }
+        });
+        long drainList = time(() -> {
+            while (list.size() > 0) {
+                List<Transaction> sorted = list.getTransactionsByFees();
+                for (Transaction tx : sorted.subList(0, Math.min(topK, sorted.size()))) {
+                    list.removeTransaction(tx);
+                }
+            }
+        });
+
+        if (!print) {
+            return;
+        }
+        int n = transactions.size();
+        System.out.printf("%d transactions, top-%d%n", n, topK);
+        System.out.printf("%-28s %14s %14s %9s%n", "phase", "list ms", "tree ms", "speed-up");
+        printRow("add all", addList, addTree);
+        printRow(LOOKUPS + " position lookups", positionList, positionTree);
+        printRow(TOP_READS + " top-K reads", topList, topTree);
+        printRow("drain by top-K", drainList, drainTree);
+        System.out.printf("tree: %.0f adds/s, list: %.0f adds/s%n",
+            n * 1e9 / addTree, n * 1e9 / addList);
+    }
+
+    private static List<Transaction> generate(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime start = LocalDateTime.now();
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CryptoType type = random.nextBoolean() ? CryptoType.BITCOIN : CryptoType.ETHEREUM;
+            FeeLevel feeLevel = FeeLevel.values()[random.nextInt(FeeLevel.values().length)];
+            transactions.add(new Transaction(UUIDGenerator.generate(), "from-" + i, "to-" + i,
+                0.001 + random.nextDouble(), type, feeLevel, 0.00001 + random.nextDouble() * 0.001,
+                TransactionStatus.PENDING, start.plusNanos(i * 1000L)));
+        }
+        return transactions;
+    }
+
+    private static long time(Runnable phase) {
+        long start = System.nanoTime();
+        phase.run();
+        return System.nanoTime() - start;
+    }
+
+    private static void printRow(String phase, long listNanos, long treeNanos) {
+        System.out.printf("%-28s %14.1f %14.1f %8.1fx%n", phase,
+            listNanos / 1e6, treeNanos / 1e6, (double) listNanos / treeNanos);
+    }
+}
@@ -0,0 +1,192 @@
+package service;
+
+import model.Mempool;
+import model.Transaction;
+import enums.CryptoType;
+import enums.FeeLevel;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stress check of the concurrent mempool (no database needed)
+ * Several producers add transactions while confirmers take the top of the pool and
+ * a reader samples top-K snapshots. Every top-K and every confirmed batch must be in
+ * priority order, no transaction may be confirmed twice, and once all threads are done
+ * size() must equal adds minus removals.
+ *
+ * Usage: java -cp out:lib/* service.MempoolStressTest [producers] [transactions per producer]
+ * Exits with status 1 if an invariant is broken.
+ */
+public class MempoolStressTest {
+
+    private static final int TOP_K = 50;
+
+    private static final String[] BTC_ADDRESSES = {
+        "1A1zP1eP5QGefi2DMPTfTL5SLmv7DivfNa", "1BvBMSEYstWetqTFn5Au4m4GFg7xJaNVN2"
+    };
+    private static final String[] ETH_ADDRESSES = {
+        "0x742d35Cc6634C0532925a3b8D9f4e676C2fC2f36", "0x267be1C1D684F78cb4F6a176C4911b741E4Ffdc0"
+    };
+
+    public static void main(String[] args) throws Exception {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int perProducer = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        TransactionService transactionService = new TransactionService(new WalletService());
+        MempoolService mempoolService = new MempoolService(transactionService);
+
+        AtomicLong added = new AtomicLong();
+        AtomicLong removed = new AtomicLong();
+        AtomicLong topChecks = new AtomicLong();
+        Set<String> confirmedIds = ConcurrentHashMap.newKeySet();
+        List<String> failures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch producersDone = new CountDownLatch(producers);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            long seed = p;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        CryptoType type = random.nextBoolean() ? CryptoType.BITCOIN : CryptoType.ETHEREUM;
+                        String[] addresses = (type == CryptoType.BITCOIN) ? BTC_ADDRESSES : ETH_ADDRESSES;
+                        double amount = 0.001 + random.nextDouble();
+                        FeeLevel feeLevel = FeeLevel.values()[random.nextInt(FeeLevel.values().length)];
+                        Transaction tx = transactionService.createTransaction(
+                            addresses[0], addresses[1], amount, type, feeLevel);
+                        if (mempoolService.addTransaction(tx)) {
+                            added.incrementAndGet();
+                        }
+                    }
+                } catch (Exception e) {
+                    fail(failures, "producer: " + e);
+                } finally {
+                    producersDone.countDown();
+                }
+            }, "producer-" + p));
+        }
+
+        // One confirmer per chain, plus one taking the merged top across chains
+        for (CryptoType type : CryptoType.values()) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    while (producersDone.getCount() > 0) {
+                        List<Transaction> batch = mempoolService.confirmTransactions(type, TOP_K);
+                        record(batch, removed, confirmedIds, failures, "confirm " + type);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "confirmer-" + type));
+        }
+        threads.add(new Thread(() -> {
+            try {
+                start.await();
+                while (producersDone.getCount() > 0) {
+                    List<Transaction> batch = mempoolService.confirmTransactions(TOP_K);
+                    record(batch, removed, confirmedIds, failures, "confirm all");
+                    checkMerged(batch, failures, "confirm all");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "confirmer-all"));
+
+        threads.add(new Thread(() -> {
+            try {
+                start.await();
+                while (producersDone.getCount() > 0) {
+                    for (CryptoType type : CryptoType.values()) {
+                        checkSorted(mempoolService.getTopTransactions(type, TOP_K), failures, "top-K " + type);
+                        topChecks.incrementAndGet();
+                    }
+                    checkMerged(mempoolService.getTopTransactions(TOP_K), failures, "merged top-K");
+                    topChecks.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "reader"));
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        long expected = added.get() - removed.get() - mempoolService.getEvictedCount();
+        if (mempoolService.getSize() != expected) {
+            fail(failures, String.format("size %d != %d added - %d removed - %d evicted",
+                mempoolService.getSize(), added.get(), removed.get(), mempoolService.getEvictedCount()));
+        }
+        for (CryptoType type : CryptoType.values()) {
+            checkSorted(mempoolService.getTopTransactions(type, TOP_K), failures, "final top-K " + type);
+        }
+
+        for (String failure : failures) {
+            System.out.println("FAIL " + failure);
+        }
+        System.out.printf("%d producers: %d added, %d confirmed, %d left, %d top-K checks in %d ms%n",
+            producers, added.get(), removed.get(), mempoolService.getSize(), topChecks.get(), elapsedMillis);
+        System.out.println(failures.isEmpty() ? "OK" : "FAILED");
+        mempoolService.shutdown();
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static void record(List<Transaction> batch, AtomicLong removed, Set<String> confirmedIds,
+                               List<String> failures, String source) {
+        removed.addAndGet(batch.size());
+        for (Transaction tx : batch) {
+            if (!confirmedIds.add(tx.getId())) {
+                fail(failures, source + ": confirmed twice " + tx.getId());
+            }
+        }
+        checkSorted(batch, failures, source);
+    }
+
+    // Priority order only holds within a chain: each transaction is compared to the previous one of its type
+    private static void checkSorted(List<Transaction> transactions, List<String> failures, String source) {
+        Map<CryptoType, Transaction> previous = new EnumMap<>(CryptoType.class);
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction tx = transactions.get(i);
+            Transaction before = previous.put(tx.getType(), tx);
+            if (before != null && Mempool.FEE_PRIORITY.compare(before, tx) > 0) {
+                fail(failures, source + ": out of order at " + i);
+                return;
+            }
+        }
+    }
+
+    // Merged views order all chains together
+    private static void checkMerged(List<Transaction> transactions, List<String> failures, String source) {
+        for (int i = 1; i < transactions.size(); i++) {
+            if (Mempool.FEE_PRIORITY.compare(transactions.get(i - 1), transactions.get(i)) > 0) {
+                fail(failures, source + ": out of order at " + i);
+                return;
+            }
+        }
+    }
+
+    private static void fail(List<String> failures, String message) {
+        synchronized (failures) {
+            failures.add(message);
+        }
+    }
+}
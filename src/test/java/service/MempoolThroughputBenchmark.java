@@ -0,0 +1,129 @@
+package service;
+
+import model.Transaction;
+import enums.CryptoType;
+import enums.FeeLevel;
+import enums.TransactionStatus;
+import util.LoggerUtil;
+import util.UUIDGenerator;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+
+/**
+ * Ingestion throughput of the concurrent mempool as producer threads are added (no database needed)
+ * For each producer count (1, 2, 4, ... up to the number of cores) the same set of
+ * transactions is split between the producers while one confirmer keeps taking the
+ * top of each chain, as the application does. Reports adds per second and the
+ * speed-up over a single producer.
+ *
+ * Usage: java -cp out:lib/* service.MempoolThroughputBenchmark [transactions] [max producers]
+ */
+public class MempoolThroughputBenchmark {
+
+    private static final int CONFIRM_BATCH = 50;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int maxProducers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        LoggerUtil.setLevel(Level.WARNING);
+
+        List<Integer> producerCounts = new ArrayList<>();
+        for (int p = 1; p < maxProducers; p *= 2) {
+            producerCounts.add(p);
+        }
+        producerCounts.add(maxProducers);
+
+        // Warm-up
+        run(Math.max(1, count / 10), maxProducers);
+
+        System.out.printf("%d transactions, %d cores, best of %d rounds%n",
+            count, Runtime.getRuntime().availableProcessors(), ROUNDS);
+        System.out.printf("%-10s %12s %14s %9s%n", "producers", "ms", "adds/s", "speed-up");
+        double single = 0;
+        for (int producers : producerCounts) {
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                best = Math.min(best, run(count, producers));
+            }
+            double rate = count * 1e9 / best;
+            if (producers == 1) {
+                single = rate;
+            }
+            System.out.printf("%-10d %12.1f %14.0f %8.2fx%n", producers, best / 1e6, rate, rate / single);
+        }
+    }
+
+    /**
+     * @return Nanoseconds until every producer is done
+     */
+    private static long run(int count, int producers) throws InterruptedException {
+        // Fresh PENDING transactions every round: confirmations change the status of the ones drained
+        List<Transaction> transactions = generate(count);
+        MempoolService mempoolService = new MempoolService(new TransactionService(new WalletService()));
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch producersDone = new CountDownLatch(producers);
+        List<Thread> threads = new ArrayList<>();
+
+        int slice = (transactions.size() + producers - 1) / producers;
+        for (int p = 0; p < producers; p++) {
+            List<Transaction> own = transactions.subList(
+                Math.min(transactions.size(), p * slice), Math.min(transactions.size(), (p + 1) * slice));
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (Transaction tx : own) {
+                        mempoolService.addTransaction(tx);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    producersDone.countDown();
+                }
+            }, "producer-" + p));
+        }
+        threads.add(new Thread(() -> {
+            try {
+                start.await();
+                while (producersDone.getCount() > 0) {
+                    for (CryptoType type : CryptoType.values()) {
+                        mempoolService.confirmTransactions(type, CONFIRM_BATCH);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "confirmer"));
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+        producersDone.await();
+        long elapsed = System.nanoTime() - startNanos;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        mempoolService.shutdown();
+        return elapsed;
+    }
+
+    private static List<Transaction> generate(int count) {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.now();
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CryptoType type = random.nextBoolean() ? CryptoType.BITCOIN : CryptoType.ETHEREUM;
+            FeeLevel feeLevel = FeeLevel.values()[random.nextInt(FeeLevel.values().length)];
+            transactions.add(new Transaction(UUIDGenerator.generate(), "from-" + i, "to-" + i,
+                0.001 + random.nextDouble(), type, feeLevel, 0.00001 + random.nextDouble() * 0.001,
+                TransactionStatus.PENDING, start.plusNanos(i * 1000L)));
+        }
+        return transactions;
+    }
+}
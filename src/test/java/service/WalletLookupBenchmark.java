@@ -0,0 +1,91 @@
+package service;
+
+import model.Wallet;
+import enums.CryptoType;
+import util.LoggerUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.logging.Level;
+
+/**
+ * Address lookup benchmark at a large wallet count (no database needed)
+ * Compares WalletService.findByAddress, served by the address index, with the
+ * previous implementation that streamed over every wallet for each lookup.
+ * The scan is O(wallets) per lookup, so it gets far fewer lookups; both are
+ * reported per lookup.
+ *
+ * Usage: java -Xmx2g -cp out:lib/* service.WalletLookupBenchmark [wallets] [indexed lookups] [scan lookups]
+ */
+public class WalletLookupBenchmark {
+
+    public static void main(String[] args) {
+        int walletCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int indexedLookups = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int scanLookups = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        LoggerUtil.setLevel(Level.WARNING);
+
+        WalletService walletService = new WalletService();
+        List<String> addresses = new ArrayList<>(walletCount);
+        long createStart = System.nanoTime();
+        for (int i = 0; i < walletCount; i++) {
+            CryptoType type = (i % 2 == 0) ? CryptoType.BITCOIN : CryptoType.ETHEREUM;
+            addresses.add(walletService.createWallet(type).getAddress());
+        }
+        long createNanos = System.nanoTime() - createStart;
+        List<Wallet> all = walletService.getAllWallets();
+
+        Random random = new Random(42);
+        // Warm-up, then the measured runs
+        lookUpIndexed(walletService, addresses, random, Math.min(indexedLookups, 100_000));
+        lookUpByScan(all, addresses, random, Math.max(1, scanLookups / 10));
+        long indexedNanos = lookUpIndexed(walletService, addresses, random, indexedLookups);
+        long scanNanos = lookUpByScan(all, addresses, random, scanLookups);
+
+        double indexedPerLookup = (double) indexedNanos / indexedLookups;
+        double scanPerLookup = (double) scanNanos / scanLookups;
+        System.out.printf("%d wallets created in %d ms%n", walletCount, createNanos / 1_000_000);
+        System.out.printf("%-8s %10s %14s %16s%n", "lookup", "lookups", "ns/lookup", "lookups/s");
+        System.out.printf("%-8s %10d %14.0f %16.0f%n", "index", indexedLookups, indexedPerLookup, 1e9 / indexedPerLookup);
+        System.out.printf("%-8s %10d %14.0f %16.0f%n", "scan", scanLookups, scanPerLookup, 1e9 / scanPerLookup);
+        System.out.printf("index is %.0fx faster%n", scanPerLookup / indexedPerLookup);
+    }
+
+    private static long lookUpIndexed(WalletService walletService, List<String> addresses, Random random, int lookups) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            if (walletService.findByAddress(addresses.get(random.nextInt(addresses.size()))).isPresent()) {
+                found++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        check(found, lookups);
+        return elapsed;
+    }
+
+    // The lookup WalletService did before the address index
+    private static long lookUpByScan(List<Wallet> wallets, List<String> addresses, Random random, int lookups) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            String address = addresses.get(random.nextInt(addresses.size()));
+            Optional<Wallet> wallet = wallets.stream()
+                .filter(w -> w.getAddress().equals(address))
+                .findFirst();
+            if (wallet.isPresent()) {
+                found++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        check(found, lookups);
+        return elapsed;
+    }
+
+    private static void check(int found, int lookups) {
+        if (found != lookups) {
+            throw new IllegalStateException(found + " of " + lookups + " addresses found");
+        }
+    }
+}
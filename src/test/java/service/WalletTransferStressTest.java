@@ -0,0 +1,117 @@
+package service;
+
+import model.Wallet;
+import enums.CryptoType;
+import exception.TransactionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Stress check of WalletService.transfer (no database needed)
+ * Several threads run random transfers between a small set of wallets, so that
+ * most transfers contend on the same locks. At the end the balances plus the fees
+ * paid must equal the initial supply, and no balance may be negative.
+ *
+ * Usage: java -cp out:lib/* service.WalletTransferStressTest [threads] [transfers per thread] [wallets]
+ * Exits with status 1 if an invariant is broken.
+ */
+public class WalletTransferStressTest {
+
+    private static final double INITIAL_BALANCE = 100.0;
+    private static final double EPSILON = 1e-6;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int transfersPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int walletCount = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        WalletService walletService = new WalletService();
+        List<Wallet> wallets = new ArrayList<>();
+        for (int i = 0; i < walletCount; i++) {
+            Wallet wallet = walletService.createWallet(CryptoType.BITCOIN);
+            walletService.updateBalance(wallet.getId(), INITIAL_BALANCE);
+            wallets.add(wallet);
+        }
+        double initialSupply = walletCount * INITIAL_BALANCE;
+
+        DoubleAdder feesPaid = new DoubleAdder();
+        AtomicLong done = new AtomicLong();
+        AtomicLong refused = new AtomicLong();
+        List<Throwable> failures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            Thread worker = new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    start.await();
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        Wallet from = wallets.get(random.nextInt(walletCount));
+                        Wallet to = wallets.get(random.nextInt(walletCount));
+                        if (from == to) {
+                            continue;
+                        }
+                        // Large enough that insufficient funds happen regularly
+                        double amount = 1 + random.nextInt(40);
+                        double fees = random.nextInt(3) * 0.01;
+                        try {
+                            walletService.transfer(from.getId(), to.getId(), amount, fees);
+                            feesPaid.add(fees);
+                            done.incrementAndGet();
+                        } catch (TransactionException e) {
+                            refused.incrementAndGet();
+                        }
+                        if (from.getBalance() < 0) {
+                            throw new IllegalStateException("Negative balance observed: " + from);
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }, "transfer-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        double finalSupply = 0;
+        boolean ok = failures.isEmpty();
+        for (Wallet wallet : wallets) {
+            finalSupply += wallet.getBalance();
+            if (wallet.getBalance() < 0) {
+                System.out.println("FAIL negative balance: " + wallet);
+                ok = false;
+            }
+        }
+        for (Throwable failure : failures) {
+            System.out.println("FAIL " + failure);
+        }
+        double conserved = finalSupply + feesPaid.sum();
+        if (Math.abs(conserved - initialSupply) > EPSILON) {
+            System.out.printf("FAIL supply not conserved: %.8f + %.8f fees != %.8f%n",
+                finalSupply, feesPaid.sum(), initialSupply);
+            ok = false;
+        }
+
+        System.out.printf("%d threads: %d transfers, %d refused in %d ms | supply %.8f + %.8f fees%n",
+            threads, done.get(), refused.get(), elapsedMillis, finalSupply, feesPaid.sum());
+        System.out.println(ok ? "OK" : "FAILED");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+}